@@ -0,0 +1,109 @@
+package com.data.project_reactnative.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-replica routing, enabled with datasource.replicas.enabled=true. The primary pool is configured by
+ * spring.datasource.* as before; replicas listed in datasource.replicas.urls serve @Transactional(readOnly = true)
+ * work while their replication lag stays within datasource.replicas.max-lag-seconds.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Value("${datasource.replicas.urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replicas.max-pool-size:10}")
+    private int replicaPoolSize;
+
+    @Value("${datasource.replicas.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (!StringUtils.hasText(url)) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            if (properties.getDriverClassName() != null) {
+                replica.setDriverClassName(properties.getDriverClassName());
+            }
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas, maxLagSeconds);
+        routing.afterPropertiesSet();
+        routing.checkReplicas();
+        return routing;
+    }
+
+    /**
+     * The DataSource used by JPA: the routing decision is deferred until the first statement,
+     * by which time the transaction's read-only flag is known
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource);
+    }
+
+    /**
+     * Periodically re-checks replica lag so lagging replicas are skipped and recovered ones used again
+     */
+    public static class ReplicaLagMonitor {
+        private final ReplicaRoutingDataSource routingDataSource;
+
+        public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource) {
+            this.routingDataSource = routingDataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${datasource.replicas.lag-check-interval-ms:5000}")
+        public void checkLag() {
+            routingDataSource.checkReplicas();
+        }
+    }
+}
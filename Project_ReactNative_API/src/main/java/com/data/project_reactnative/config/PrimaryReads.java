@@ -0,0 +1,47 @@
+package com.data.project_reactnative.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs reads that must see the latest commits on the primary. Caches use it for their loads: inside a
+ * read-only transaction the load would otherwise go to a replica that may still miss a change whose
+ * commit just invalidated the entry, and the stale value would be cached again.
+ */
+@Component
+public class PrimaryReads {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${datasource.replicas.enabled:false}")
+    private boolean replicasEnabled;
+
+    private TransactionTemplate primaryTransaction;
+
+    @PostConstruct
+    void init() {
+        primaryTransaction = new TransactionTemplate(transactionManager);
+        primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        primaryTransaction.setReadOnly(false);
+    }
+
+    /**
+     * Run the read in the current transaction, or in a new read-write one (routed to the primary)
+     * when the current one is read-only and replicas are in use
+     */
+    public <T> T read(Supplier<T> read) {
+        if (replicasEnabled && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primaryTransaction.execute(status -> read.get());
+        }
+        return read.get();
+    }
+}
@@ -0,0 +1,125 @@
+package com.data.project_reactnative.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything else to the primary.
+ * Replicas take turns; one that lags more than the configured limit, or cannot be checked, is skipped until
+ * it catches up, and when no replica is usable reads go to the primary.
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the connection is chosen after the transaction's
+ * read-only flag has been set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+
+    private final long maxLagSeconds;
+
+    private volatile List<String> healthyReplicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long maxLagSeconds) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLagSeconds;
+        // Replicas are only trusted once a lag check has passed
+        this.healthyReplicas = List.of();
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> candidates = healthyReplicas;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(nextReplica.getAndIncrement(), candidates.size()));
+    }
+
+    /**
+     * Re-check the replication lag of every replica and update the set reads are routed to
+     */
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            Long lag = replicationLagSeconds(replica.getValue());
+            boolean usable = lag != null && lag <= maxLagSeconds;
+            if (usable) {
+                healthy.add(replica.getKey());
+            }
+            if (usable != healthyReplicas.contains(replica.getKey())) {
+                logger.warn("Replica {} is now {} (lag: {} s)", replica.getKey(), usable ? "in use" : "skipped",
+                        lag != null ? lag : "unknown");
+            }
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    /**
+     * Close the replica pools (the primary pool is a bean of its own)
+     */
+    public void close() {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Could not close replica pool: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Seconds the replica is behind its source, or null when replication is not running or the check failed
+     */
+    private Long replicationLagSeconds(DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return readLag(rs, "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL before 8.0.22
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return readLag(rs, "Seconds_Behind_Master");
+                }
+            }
+        } catch (SQLException e) {
+            logger.debug("Replica lag check failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private Long readLag(ResultSet rs, String column) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+}
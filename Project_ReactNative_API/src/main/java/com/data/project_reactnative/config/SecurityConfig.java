@@ -2,7 +2,9 @@ package com.data.project_reactnative.config;
 
 import com.data.project_reactnative.security.JwtAuthenticationFilter;
 import com.data.project_reactnative.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -36,6 +38,9 @@ public class SecurityConfig {
     @Autowired
     private AuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf().disable();
@@ -44,6 +49,8 @@ public class SecurityConfig {
         http.authorizeHttpRequests()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll() // Allow public access to uploaded images
+                .requestMatchers("/ws/**").permitAll() // WebSocket handshake; STOMP CONNECT is authenticated with the JWT
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll() // SSE completion; the original request was authenticated
                 .anyRequest().authenticated();
         http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
         http.authenticationProvider(authenticationProvider());
@@ -84,7 +91,7 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true); // Allow credentials for JWT
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Next-Cursor", "Retry-After"));
         configuration.setMaxAge(3600L);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -92,9 +99,12 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Hashes are upgraded on login when auth.bcrypt.strength is raised (see PasswordHashingService)
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
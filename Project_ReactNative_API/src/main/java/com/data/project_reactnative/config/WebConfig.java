@@ -1,28 +0,0 @@
-package com.data.project_reactnative.config;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
-@Configuration
-public class WebConfig implements WebMvcConfigurer {
-
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-        String location = "file:" + uploadPath.toString() + "/";
-
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(location)
-                .setCachePeriod(3600); // Cache for 1 hour
-    }
-}
-
-
@@ -4,6 +4,7 @@ package com.data.project_reactnative.controller;
 import com.data.project_reactnative.dto.AuthResponse;
 import com.data.project_reactnative.dto.LoginRequest;
 import com.data.project_reactnative.dto.MessageResponse;
+import com.data.project_reactnative.dto.RefreshTokenRequest;
 import com.data.project_reactnative.dto.RegisterRequest;
 import com.data.project_reactnative.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,4 +29,18 @@ public class AuthController {
         AuthResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logout(
+            @RequestBody(required = false) RefreshTokenRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        MessageResponse response = authService.logout(request, authHeader);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,16 +1,13 @@
 package com.data.project_reactnative.controller;
 
 import com.data.project_reactnative.dto.*;
-import com.data.project_reactnative.model.User;
-import com.data.project_reactnative.repository.UserRepository;
+import com.data.project_reactnative.security.AuthenticatedUser;
 import com.data.project_reactnative.service.FriendService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -26,16 +23,9 @@ public class FriendController {
     @Autowired
     private FriendService friendService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     // Lấy userId từ authentication
     private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+        return AuthenticatedUser.currentUserId();
     }
 
     // API tìm kiếm người dùng theo số điện thoại
@@ -1,16 +1,15 @@
 package com.data.project_reactnative.controller;
 
 import com.data.project_reactnative.dto.*;
-import com.data.project_reactnative.repository.UserRepository;
+import com.data.project_reactnative.security.AuthenticatedUser;
 import com.data.project_reactnative.service.MessageService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,18 +24,11 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Get current user ID from authentication
      */
     private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return AuthenticatedUser.currentUserId();
     }
 
     /**
@@ -78,15 +70,81 @@ public class MessageController {
     }
 
     /**
-     * Get messages between current user and another user
-     * GET /api/messages/{userId}
+     * Upload image/video for message as the raw request body (streamed to storage without multipart staging)
+     * POST /api/messages/upload with Content-Type: image/* or video/*
+     */
+    @PostMapping(value = "/upload", consumes = {"image/*", "video/*"})
+    public ResponseEntity<ApiResponse<UploadMediaResponse>> uploadMessageMediaStream(
+            HttpServletRequest request,
+            @RequestParam(required = false) String filename) {
+        try {
+            logger.info("POST /api/messages/upload - Streaming {} bytes of {}",
+                    request.getContentLengthLong(), request.getContentType());
+            String fileUrl = messageService.uploadMessageMedia(request.getInputStream(),
+                    request.getContentLengthLong(), request.getContentType(), filename);
+            UploadMediaResponse response = new UploadMediaResponse(fileUrl);
+            return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", response));
+        } catch (Exception e) {
+            logger.error("Error uploading media: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * Get a pre-signed URL to upload message media directly to media storage (S3 media store only)
+     * POST /api/messages/upload/direct
+     * Send the file with the returned method and headers, then call /upload/direct/complete.
+     */
+    @PostMapping("/upload/direct")
+    public ResponseEntity<ApiResponse<DirectUploadResponse>> prepareDirectMediaUpload(
+            @RequestBody DirectUploadRequest request) {
+        try {
+            DirectUploadResponse response = messageService.prepareDirectMediaUpload(request);
+            return ResponseEntity.ok(ApiResponse.success("Upload URL created", response));
+        } catch (Exception e) {
+            logger.error("Error preparing direct upload: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * Register message media uploaded to a pre-signed URL
+     * POST /api/messages/upload/direct/complete
+     */
+    @PostMapping("/upload/direct/complete")
+    public ResponseEntity<ApiResponse<UploadMediaResponse>> completeDirectMediaUpload(
+            @RequestBody DirectUploadRequest request) {
+        try {
+            String fileUrl = messageService.completeDirectMediaUpload(request);
+            return ResponseEntity.ok(ApiResponse.success("File uploaded successfully", new UploadMediaResponse(fileUrl)));
+        } catch (Exception e) {
+            logger.error("Error completing direct upload: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * Get messages between current user and another user, newest page first
+     * GET /api/messages/{userId}?limit=50&before={messageId}
+     * To scroll back, pass the id of the oldest message already loaded as before.
+     * reactions=compact returns per-type counts and the caller's own reaction instead of every reaction.
      */
     @GetMapping("/{userId}")
-    public ResponseEntity<ApiResponse<List<MessageDTO>>> getMessages(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<List<MessageDTO>>> getMessages(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "full") String reactions) {
         try {
-            logger.info("GET /api/messages/{} - Getting messages", userId);
+            logger.info("GET /api/messages/{} - Getting messages (before: {}, limit: {}, reactions: {})",
+                    userId, before, limit, reactions);
             Long currentUserId = getCurrentUserId();
-            List<MessageDTO> messages = messageService.getMessagesBetweenUsers(currentUserId, userId);
+            boolean compactReactions = "compact".equalsIgnoreCase(reactions);
+            List<MessageDTO> messages = messageService.getMessagesBetweenUsers(currentUserId, userId, before, limit,
+                    compactReactions);
             return ResponseEntity.ok(ApiResponse.success("Messages retrieved successfully", messages));
         } catch (Exception e) {
             logger.error("Error getting messages: {}", e.getMessage());
@@ -140,15 +198,17 @@ public class MessageController {
     }
 
     /**
-     * Mark messages as read
-     * PUT /api/messages/{userId}/read
+     * Mark messages as read, optionally only up to a given message
+     * PUT /api/messages/{userId}/read?upTo={messageId}
      */
     @PutMapping("/{userId}/read")
-    public ResponseEntity<ApiResponse<String>> markMessagesAsRead(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<String>> markMessagesAsRead(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Long upTo) {
         try {
-            logger.info("PUT /api/messages/{}/read - Marking messages as read", userId);
+            logger.info("PUT /api/messages/{}/read - Marking messages as read (upTo: {})", userId, upTo);
             Long currentUserId = getCurrentUserId();
-            messageService.markMessagesAsRead(currentUserId, userId);
+            messageService.markMessagesAsRead(currentUserId, userId, upTo);
             return ResponseEntity.ok(ApiResponse.success("Messages marked as read", null));
         } catch (Exception e) {
             logger.error("Error marking messages as read: {}", e.getMessage());
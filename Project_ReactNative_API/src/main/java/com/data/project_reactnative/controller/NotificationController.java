@@ -2,19 +2,18 @@ package com.data.project_reactnative.controller;
 
 import com.data.project_reactnative.dto.ApiResponse;
 import com.data.project_reactnative.dto.NotificationCountDTO;
-import com.data.project_reactnative.model.User;
-import com.data.project_reactnative.repository.UserRepository;
+import com.data.project_reactnative.security.AuthenticatedUser;
 import com.data.project_reactnative.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -25,18 +24,11 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     /**
      * Get current user ID from authentication
      */
     private Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
+        return AuthenticatedUser.currentUserId();
     }
 
     /**
@@ -56,5 +48,15 @@ public class NotificationController {
                     .body(ApiResponse.error(400, e.getMessage()));
         }
     }
-}
 
+    /**
+     * Stream notification counts as Server-Sent Events ("counts" events, coalesced)
+     * GET /api/notifications/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotificationCounts() {
+        logger.info("GET /api/notifications/stream - Opening notification stream");
+        Long userId = getCurrentUserId();
+        return notificationService.streamNotificationCounts(userId);
+    }
+}
@@ -1,18 +1,19 @@
 package com.data.project_reactnative.controller;
 
 import com.data.project_reactnative.dto.*;
+import com.data.project_reactnative.security.AuthenticatedUser;
 import com.data.project_reactnative.service.PostService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -21,28 +22,31 @@ public class PostController {
 
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private PostService postService;
 
     /**
      * Get all posts with pagination (for newsfeed)
-     * GET /api/posts?page=1&limit=10
+     * GET /api/posts?limit=10&cursor=...
+     * The page parameter is kept for older clients; paging follows the cursor returned in X-Next-Cursor.
      */
     @GetMapping
     public ResponseEntity<List<PostResponse>> getAllPosts(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int limit) {
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
-            logger.info("GET /api/posts - page: {}, limit: {}", page, limit);
+            logger.info("GET /api/posts - page: {}, limit: {}, cursor: {}", page, limit, cursor);
 
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            logger.info("User email from token: {}", email);
+            Long userId = AuthenticatedUser.currentUserId();
+            logger.info("User id from token: {}", userId);
 
-            List<PostResponse> posts = postService.getFeedPosts(email);
-            logger.info("Retrieved {} posts", posts.size());
+            FeedPageResponse feedPage = postService.getFeedPosts(userId, cursor, limit);
+            logger.info("Retrieved {} posts", feedPage.getPosts().size());
 
-            return ResponseEntity.ok(posts);
+            return toFeedListResponse(feedPage);
         } catch (Exception e) {
             logger.error("Error in getAllPosts: ", e);
             throw e;
@@ -58,11 +62,10 @@ public class PostController {
         try {
             logger.info("POST /api/posts - Creating new post");
 
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            logger.info("User email: {}", email);
+            Long userId = AuthenticatedUser.currentUserId();
+            logger.info("User id from token: {}", userId);
 
-            PostResponse response = postService.createPost(email, request);
+            PostResponse response = postService.createPost(userId, request);
             logger.info("Post created successfully with ID: {}", response.getId());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
@@ -74,37 +77,51 @@ public class PostController {
 
     /**
      * Get newsfeed (posts from friends)
-     * GET /api/posts/feed
+     * GET /api/posts/feed?limit=10&cursor=...
      */
     @GetMapping("/feed")
-    public ResponseEntity<List<PostResponse>> getFriendsPosts() {
+    public ResponseEntity<List<PostResponse>> getFriendsPosts(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
         try {
-            logger.info("GET /api/posts/feed");
+            logger.info("GET /api/posts/feed - limit: {}, cursor: {}", limit, cursor);
 
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            logger.info("User email: {}", email);
+            Long userId = AuthenticatedUser.currentUserId();
+            logger.info("User id from token: {}", userId);
 
-            List<PostResponse> posts = postService.getFeedPosts(email);
-            logger.info("Retrieved {} posts for feed", posts.size());
+            FeedPageResponse feedPage = postService.getFeedPosts(userId, cursor, limit);
+            logger.info("Retrieved {} posts for feed", feedPage.getPosts().size());
 
-            return ResponseEntity.ok(posts);
+            return toFeedListResponse(feedPage);
         } catch (Exception e) {
             logger.error("Error getting feed: ", e);
             throw e;
         }
     }
 
+    /**
+     * Get one newsfeed page together with the cursor of the next page
+     * GET /api/posts/feed/page?limit=10&cursor=...
+     */
+    @GetMapping("/feed/page")
+    public ResponseEntity<FeedPageResponse> getFeedPage(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String cursor) {
+        Long userId = AuthenticatedUser.currentUserId();
+
+        FeedPageResponse feedPage = postService.getFeedPosts(userId, cursor, limit);
+        return ResponseEntity.ok(feedPage);
+    }
+
     /**
      * Get current user's posts (profile)
      * GET /api/posts/me
      */
     @GetMapping("/me")
     public ResponseEntity<List<PostResponse>> getMyPosts() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        List<PostResponse> posts = postService.getOwnPosts(email);
+        List<PostResponse> posts = postService.getOwnPosts(userId);
 
         return ResponseEntity.ok(posts);
     }
@@ -115,10 +132,9 @@ public class PostController {
      */
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<PostResponse>> getUserPosts(@PathVariable Long userId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long viewerId = AuthenticatedUser.currentUserId();
 
-        List<PostResponse> posts = postService.getUserPosts(userId, email);
+        List<PostResponse> posts = postService.getUserPosts(userId, viewerId);
         return ResponseEntity.ok(posts);
     }
 
@@ -128,10 +144,9 @@ public class PostController {
      */
     @GetMapping("/{postId}")
     public ResponseEntity<PostResponse> getPostById(@PathVariable Long postId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        PostResponse post = postService.getPostById(postId, email);
+        PostResponse post = postService.getPostById(postId, userId);
         return ResponseEntity.ok(post);
     }
 
@@ -147,6 +162,55 @@ public class PostController {
         return ResponseEntity.ok(ApiResponse.success("Upload successful", response));
     }
 
+    /**
+     * Upload image for a post as the raw request body (streamed to storage without multipart staging)
+     * POST /api/posts/upload with Content-Type: image/*
+     */
+    @PostMapping(value = "/upload", consumes = "image/*")
+    public ResponseEntity<ApiResponse<UploadMediaResponse>> uploadPostImageStream(
+            HttpServletRequest request,
+            @RequestParam(required = false) String filename) throws IOException {
+        String imageUrl = postService.uploadPostImage(request.getInputStream(), request.getContentLengthLong(),
+                request.getContentType(), filename);
+        UploadMediaResponse response = new UploadMediaResponse(imageUrl);
+        return ResponseEntity.ok(ApiResponse.success("Upload successful", response));
+    }
+
+    /**
+     * Get a pre-signed URL to upload a post image directly to media storage (S3 media store only)
+     * POST /api/posts/upload/direct
+     * Send the file with the returned method and headers, then call /upload/direct/complete.
+     */
+    @PostMapping("/upload/direct")
+    public ResponseEntity<ApiResponse<DirectUploadResponse>> prepareDirectImageUpload(
+            @RequestBody DirectUploadRequest request) {
+        try {
+            DirectUploadResponse response = postService.prepareDirectImageUpload(request);
+            return ResponseEntity.ok(ApiResponse.success("Upload URL created", response));
+        } catch (Exception e) {
+            logger.error("Error preparing direct upload: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        }
+    }
+
+    /**
+     * Register a post image uploaded to a pre-signed URL
+     * POST /api/posts/upload/direct/complete
+     */
+    @PostMapping("/upload/direct/complete")
+    public ResponseEntity<ApiResponse<UploadMediaResponse>> completeDirectImageUpload(
+            @RequestBody DirectUploadRequest request) {
+        try {
+            String imageUrl = postService.completeDirectImageUpload(request);
+            return ResponseEntity.ok(ApiResponse.success("Upload successful", new UploadMediaResponse(imageUrl)));
+        } catch (Exception e) {
+            logger.error("Error completing direct upload: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(400, e.getMessage()));
+        }
+    }
+
     /**
      * Update post privacy
      * PUT /api/posts/{postId}/privacy
@@ -155,10 +219,9 @@ public class PostController {
     public ResponseEntity<PostResponse> updatePostPrivacy(
             @PathVariable Long postId,
             @RequestBody UpdatePostPrivacyRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        PostResponse response = postService.updatePostPrivacy(email, postId, request);
+        PostResponse response = postService.updatePostPrivacy(userId, postId, request);
         return ResponseEntity.ok(response);
     }
 
@@ -168,10 +231,9 @@ public class PostController {
      */
     @PostMapping("/{postId}/like")
     public ResponseEntity<ApiResponse<Object>> likePost(@PathVariable Long postId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        ApiResponse<Object> response = postService.likePost(email, postId);
+        ApiResponse<Object> response = postService.likePost(userId, postId);
         return ResponseEntity.ok(response);
     }
 
@@ -181,10 +243,9 @@ public class PostController {
      */
     @DeleteMapping("/{postId}/like")
     public ResponseEntity<ApiResponse<Object>> unlikePost(@PathVariable Long postId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        ApiResponse<Object> response = postService.unlikePost(email, postId);
+        ApiResponse<Object> response = postService.unlikePost(userId, postId);
         return ResponseEntity.ok(response);
     }
 
@@ -196,10 +257,9 @@ public class PostController {
     public ResponseEntity<CommentResponse> addComment(
             @PathVariable Long postId,
             @RequestBody CreateCommentRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        CommentResponse response = postService.addComment(email, postId, request);
+        CommentResponse response = postService.addComment(userId, postId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -212,5 +272,12 @@ public class PostController {
         List<CommentResponse> comments = postService.getPostComments(postId);
         return ResponseEntity.ok(comments);
     }
-}
 
+    private ResponseEntity<List<PostResponse>> toFeedListResponse(FeedPageResponse feedPage) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (feedPage.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, feedPage.getNextCursor());
+        }
+        return builder.body(feedPage.getPosts());
+    }
+}
@@ -0,0 +1,225 @@
+package com.data.project_reactnative.controller;
+
+import com.data.project_reactnative.service.ImageVariantService;
+import com.data.project_reactnative.storage.MediaStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Serves uploaded media. Upload file names never change content (SHA-256 or UUID based), so responses carry a
+ * strong ETag derived from the name and are cacheable for a year as immutable. Supports If-None-Match,
+ * single byte ranges (Range / If-Range) for video seeking, and ?w= to pick a resized image variant.
+ * Bodies are sent with Tomcat's sendfile when the connector offers it, otherwise with FileChannel.transferTo.
+ * With a remote media store the client is redirected to the object's download URL instead.
+ */
+@RestController
+public class UploadController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadController.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+(\\.[A-Za-z0-9]{1,10})?");
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Value("${media.serving.max-age-seconds:31536000}")
+    private long maxAgeSeconds;
+
+    @Value("${media.serving.fallback-max-age-seconds:3600}")
+    private long fallbackMaxAgeSeconds;
+
+    @Value("${media.serving.redirect-max-age-seconds:300}")
+    private long redirectMaxAgeSeconds;
+
+    /**
+     * Serve an uploaded file (HEAD is handled by the same mapping)
+     * GET /uploads/{fileName}?w=640
+     */
+    @GetMapping("/uploads/{fileName}")
+    public void serveUpload(@PathVariable String fileName,
+                            @RequestParam(value = "w", required = false) Integer width,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // A requested width that has no variant (yet) falls back to the original with a short cache lifetime,
+        // so the variant is picked up once it has been generated
+        String servedName = fileName;
+        long cacheSeconds = maxAgeSeconds;
+        if (width != null && width > 0) {
+            String variant = imageVariantService.resolveVariant(fileName, width);
+            if (variant != null) {
+                servedName = variant;
+            } else {
+                cacheSeconds = fallbackMaxAgeSeconds;
+            }
+        }
+
+        Path file = mediaStore.localPath(servedName);
+        if (file == null) {
+            // Kept shorter than the pre-signed URL lifetime
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    "private, max-age=" + Math.min(cacheSeconds, redirectMaxAgeSeconds));
+            response.sendRedirect(mediaStore.downloadUrl(servedName));
+            return;
+        }
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + stripExtension(servedName) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheSeconds == maxAgeSeconds
+                ? "public, max-age=" + cacheSeconds + ", immutable"
+                : "public, max-age=" + cacheSeconds);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = Files.size(file);
+        long start = 0;
+        long end = size - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.trim().equals(etag))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(servedName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(length);
+
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", end + 1);
+            return;
+        }
+
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = source.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (IOException e) {
+            // Players routinely drop the connection when the user seeks
+            logger.debug("Upload transfer of {} aborted: {}", servedName, e.getMessage());
+        }
+    }
+
+    /**
+     * Bounds of a single byte range as {start, end}; an empty array when the header should be ignored
+     * (malformed or multiple ranges - the whole file is sent); null when the range cannot be satisfied.
+     */
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') != -1) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String stripExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot != -1 ? fileName.substring(0, dot) : fileName;
+    }
+}
@@ -2,11 +2,10 @@ package com.data.project_reactnative.controller;
 
 import com.data.project_reactnative.dto.UpdateUserRequest;
 import com.data.project_reactnative.dto.UserResponse;
+import com.data.project_reactnative.security.AuthenticatedUser;
 import com.data.project_reactnative.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,20 +17,17 @@ public class UserController {
 
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        UserResponse response = userService.getUserByEmail(email);
+        UserResponse response = userService.getUserById(userId);
         return ResponseEntity.ok(response);
     }
 
     @PutMapping("/update")
     public ResponseEntity<UserResponse> updateUser(@RequestBody UpdateUserRequest request) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.currentUserId();
 
-        UserResponse response = userService.updateUser(email, request);
+        UserResponse response = userService.updateUser(userId, request);
         return ResponseEntity.ok(response);
     }
 }
-
@@ -2,6 +2,8 @@ package com.data.project_reactnative.dto;
 
 public class AuthResponse {
     private String token;
+    private String refreshToken;
+    private long expiresIn;
     private String message;
     private UserResponse user;
 
@@ -15,6 +17,14 @@ public class AuthResponse {
         this.user = user;
     }
 
+    public AuthResponse(String token, String refreshToken, long expiresIn, String message, UserResponse user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+        this.message = message;
+        this.user = user;
+    }
+
     // Getters and Setters
     public String getToken() {
         return token;
@@ -24,6 +34,22 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
     public String getMessage() {
         return message;
     }
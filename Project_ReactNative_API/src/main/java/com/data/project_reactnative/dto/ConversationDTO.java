@@ -9,6 +9,7 @@ public class ConversationDTO {
     private String lastMessage;
     private LocalDateTime lastMessageTime;
     private boolean hasUnread;
+    private long unreadCount;
 
     // Constructors
     public ConversationDTO() {
@@ -24,6 +25,12 @@ public class ConversationDTO {
         this.hasUnread = hasUnread;
     }
 
+    public ConversationDTO(Long userId, String username, String avatarUrl,
+                          String lastMessage, LocalDateTime lastMessageTime, long unreadCount) {
+        this(userId, username, avatarUrl, lastMessage, lastMessageTime, unreadCount > 0);
+        this.unreadCount = unreadCount;
+    }
+
     // Getters and Setters
     public Long getUserId() {
         return userId;
@@ -72,5 +79,12 @@ public class ConversationDTO {
     public void setHasUnread(boolean hasUnread) {
         this.hasUnread = hasUnread;
     }
-}
 
+    public long getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(long unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
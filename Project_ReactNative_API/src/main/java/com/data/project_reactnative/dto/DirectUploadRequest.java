@@ -0,0 +1,42 @@
+package com.data.project_reactnative.dto;
+
+public class DirectUploadRequest {
+    private String sha256;
+    private String contentType;
+    private long size;
+
+    // Constructors
+    public DirectUploadRequest() {
+    }
+
+    public DirectUploadRequest(String sha256, String contentType, long size) {
+        this.sha256 = sha256;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    // Getters and Setters
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,77 @@
+package com.data.project_reactnative.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Where to send a file for a direct upload. When alreadyStored is true the content is already on the server,
+ * nothing needs to be uploaded and mediaUrl can be used right away.
+ */
+public class DirectUploadResponse {
+    private boolean alreadyStored;
+    private String mediaUrl;
+    private String uploadUrl;
+    private String method;
+    private Map<String, String> headers;
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public DirectUploadResponse() {
+    }
+
+    public DirectUploadResponse(String uploadUrl, String method, Map<String, String> headers, LocalDateTime expiresAt) {
+        this.uploadUrl = uploadUrl;
+        this.method = method;
+        this.headers = headers;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public boolean isAlreadyStored() {
+        return alreadyStored;
+    }
+
+    public void setAlreadyStored(boolean alreadyStored) {
+        this.alreadyStored = alreadyStored;
+    }
+
+    public String getMediaUrl() {
+        return mediaUrl;
+    }
+
+    public void setMediaUrl(String mediaUrl) {
+        this.mediaUrl = mediaUrl;
+    }
+
+    public String getUploadUrl() {
+        return uploadUrl;
+    }
+
+    public void setUploadUrl(String uploadUrl) {
+        this.uploadUrl = uploadUrl;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,43 @@
+package com.data.project_reactnative.dto;
+
+import java.util.List;
+
+public class FeedPageResponse {
+    private List<PostResponse> posts;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public FeedPageResponse() {
+    }
+
+    public FeedPageResponse(List<PostResponse> posts, String nextCursor, boolean hasMore) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<PostResponse> getPosts() {
+        return posts;
+    }
+
+    public void setPosts(List<PostResponse> posts) {
+        this.posts = posts;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
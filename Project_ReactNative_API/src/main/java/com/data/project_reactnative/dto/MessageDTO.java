@@ -2,6 +2,7 @@ package com.data.project_reactnative.dto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class MessageDTO {
     private Long id;
@@ -14,6 +15,9 @@ public class MessageDTO {
     private boolean isRead;
     private LocalDateTime createdAt;
     private List<MessageReactionDTO> reactions;
+    // Compact mode: reaction counts per type and the viewer's own reaction, instead of the full reaction list
+    private Map<String, Long> reactionCounts;
+    private String myReaction;
 
     // Constructors
     public MessageDTO() {
@@ -99,5 +103,20 @@ public class MessageDTO {
     public void setReactions(List<MessageReactionDTO> reactions) {
         this.reactions = reactions;
     }
-}
 
+    public Map<String, Long> getReactionCounts() {
+        return reactionCounts;
+    }
+
+    public void setReactionCounts(Map<String, Long> reactionCounts) {
+        this.reactionCounts = reactionCounts;
+    }
+
+    public String getMyReaction() {
+        return myReaction;
+    }
+
+    public void setMyReaction(String myReaction) {
+        this.myReaction = myReaction;
+    }
+}
@@ -1,6 +1,7 @@
 package com.data.project_reactnative.dto;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 public class PostResponse {
     private Long id;
@@ -8,6 +9,8 @@ public class PostResponse {
     private String username;
     private String userAvatarUrl;
     private String imageUrl;
+    private Map<Integer, String> imageVariants;
+    private String blurHash;
     private String caption;
     private String privacy;
     private int likesCount;
@@ -79,6 +82,22 @@ public class PostResponse {
         this.imageUrl = imageUrl;
     }
 
+    public Map<Integer, String> getImageVariants() {
+        return imageVariants;
+    }
+
+    public void setImageVariants(Map<Integer, String> imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
+    public String getBlurHash() {
+        return blurHash;
+    }
+
+    public void setBlurHash(String blurHash) {
+        this.blurHash = blurHash;
+    }
+
     public String getCaption() {
         return caption;
     }
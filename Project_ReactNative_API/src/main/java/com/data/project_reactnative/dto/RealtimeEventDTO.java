@@ -0,0 +1,43 @@
+package com.data.project_reactnative.dto;
+
+import java.time.LocalDateTime;
+
+public class RealtimeEventDTO {
+    private String type; // MESSAGE_NEW, MESSAGE_REACTION, FRIEND_REQUEST
+    private Object payload;
+    private LocalDateTime createdAt;
+
+    public RealtimeEventDTO() {
+    }
+
+    public RealtimeEventDTO(String type, Object payload) {
+        this.type = type;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+
+    public void setPayload(Object payload) {
+        this.payload = payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
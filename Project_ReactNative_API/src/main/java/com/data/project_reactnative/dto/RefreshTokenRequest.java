@@ -0,0 +1,22 @@
+package com.data.project_reactnative.dto;
+
+public class RefreshTokenRequest {
+    private String refreshToken;
+
+    // Constructors
+    public RefreshTokenRequest() {
+    }
+
+    public RefreshTokenRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and Setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,14 @@
+package com.data.project_reactnative.exception;
+
+public class AuthOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public AuthOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
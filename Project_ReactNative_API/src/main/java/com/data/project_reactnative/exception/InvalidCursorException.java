@@ -0,0 +1,7 @@
+package com.data.project_reactnative.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
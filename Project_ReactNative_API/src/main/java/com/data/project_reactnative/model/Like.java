@@ -6,18 +6,22 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "post_like")
+@Table(name = "post_like", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_post_like_post_user", columnNames = {"post_id", "user_id"})
+}, indexes = {
+    @Index(name = "idx_post_like_user_post", columnList = "user_id, post_id")
+})
 public class Like {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
     private Post post;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -0,0 +1,160 @@
+package com.data.project_reactnative.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored media file, addressed by the SHA-256 of its content.
+ * refCount is the number of posts, messages and avatars pointing at the file; blobs that stay unreferenced
+ * past the grace period after their last upload are removed by MediaGarbageCollector, which sets refCount to -1
+ * while it deletes the files. The row is inserted before the file is written, so the unique sha256 settles
+ * concurrent uploads of the same content.
+ */
+@Entity
+@Table(name = "media_blobs", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"sha256"}),
+    @UniqueConstraint(columnNames = {"file_name"})
+}, indexes = {
+    @Index(name = "idx_media_blobs_unreferenced", columnList = "ref_count, last_uploaded_at")
+})
+public class MediaBlob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+
+    @Column(name = "last_uploaded_at", nullable = false)
+    private LocalDateTime lastUploadedAt;
+
+    // Filled in by ImageVariantService once the resized variants of an image exist
+    @Column(name = "image_width")
+    private Integer imageWidth;
+
+    @Column(name = "image_height")
+    private Integer imageHeight;
+
+    @Column(name = "blur_hash", length = 64)
+    private String blurHash;
+
+    // Comma-separated widths of the generated variants, e.g. "320,640"
+    @Column(name = "variant_widths", length = 64)
+    private String variantWidths;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getLastUploadedAt() {
+        return lastUploadedAt;
+    }
+
+    public void setLastUploadedAt(LocalDateTime lastUploadedAt) {
+        this.lastUploadedAt = lastUploadedAt;
+    }
+
+    public Integer getImageWidth() {
+        return imageWidth;
+    }
+
+    public void setImageWidth(Integer imageWidth) {
+        this.imageWidth = imageWidth;
+    }
+
+    public Integer getImageHeight() {
+        return imageHeight;
+    }
+
+    public void setImageHeight(Integer imageHeight) {
+        this.imageHeight = imageHeight;
+    }
+
+    public String getBlurHash() {
+        return blurHash;
+    }
+
+    public void setBlurHash(String blurHash) {
+        this.blurHash = blurHash;
+    }
+
+    public String getVariantWidths() {
+        return variantWidths;
+    }
+
+    public void setVariantWidths(String variantWidths) {
+        this.variantWidths = variantWidths;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -8,13 +8,17 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_post_user_created", columnList = "user_id, created_at, privacy"),
+    @Index(name = "idx_post_privacy_created", columnList = "privacy, created_at")
+})
 public class Post {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -24,6 +28,15 @@ public class Post {
     @Enumerated(EnumType.STRING)
     private Privacy privacy = Privacy.PUBLIC;
 
+    // Denormalized counters, kept in sync by PostService and PostCounterReconciler.
+    // Not updatable through the entity so a stale snapshot never overwrites a concurrent increment;
+    // they are only changed by the UPDATE queries in PostRepository.
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount = 0;
+
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount = 0;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -110,6 +123,22 @@ public class Post {
         this.privacy = privacy;
     }
 
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
     // Privacy enum
     public enum Privacy {
         PUBLIC, FRIENDS, PRIVATE
@@ -0,0 +1,53 @@
+package com.data.project_reactnative.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id (jti) of an access token revoked before its expiry. Rows are only needed until the token would have expired.
+ */
+@Entity
+@Table(name = "revoked_tokens", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"jti"})
+}, indexes = {
+    @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at")
+})
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "jti", nullable = false, length = 36)
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
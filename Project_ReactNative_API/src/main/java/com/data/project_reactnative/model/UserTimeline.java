@@ -0,0 +1,77 @@
+package com.data.project_reactnative.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One precomputed newsfeed entry: post {@code postId} by {@code authorId} pushed to the timeline of {@code userId}.
+ * Ids are stored as plain columns so timeline reads never load Post or User entities.
+ */
+@Entity
+@Table(name = "user_timeline", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_timeline_user_post", columnNames = {"user_id", "post_id"})
+}, indexes = {
+    @Index(name = "idx_user_timeline_user_created", columnList = "user_id, post_created_at, post_id"),
+    @Index(name = "idx_user_timeline_post_created", columnList = "post_created_at")
+})
+public class UserTimeline {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "post_created_at", nullable = false)
+    private LocalDateTime postCreatedAt;
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    public LocalDateTime getPostCreatedAt() {
+        return postCreatedAt;
+    }
+
+    public void setPostCreatedAt(LocalDateTime postCreatedAt) {
+        this.postCreatedAt = postCreatedAt;
+    }
+}
@@ -3,7 +3,10 @@ package com.data.project_reactnative.repository;
 import com.data.project_reactnative.model.Comment;
 import com.data.project_reactnative.model.Post;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -13,6 +16,10 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     // Count comments for a specific post
     long countByPost(Post post);
+
+    // Count comments for a batch of posts, one [postId, count] row per post that has comments
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
 }
 
 
@@ -0,0 +1,56 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    // Inbox of a user, most recent conversation first (partner fields come from the profile cache)
+    @Query("SELECT cs FROM ConversationSummary cs WHERE cs.userId = :userId ORDER BY cs.lastMessageAt DESC")
+    List<ConversationSummary> findInbox(@Param("userId") Long userId);
+
+    // Record a message in one statement, creating the row on the first message (upsert on the (user_id, partner_id)
+    // unique key). unreadIncrement is 1 for the receiver's row and 0 for the sender's row and is always applied;
+    // the last message only moves forward, so a message whose transaction commits late cannot replace a newer one.
+    // MySQL applies the assignments in order, so last_message_id is compared before it is overwritten.
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary " +
+                   "(user_id, partner_id, last_message_id, last_message_preview, last_message_at, unread_count) " +
+                   "VALUES (:userId, :partnerId, :messageId, :preview, :sentAt, :unreadIncrement) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "last_message_preview = IF(last_message_id IS NULL OR last_message_id < :messageId, :preview, last_message_preview), " +
+                   "last_message_at = IF(last_message_id IS NULL OR last_message_id < :messageId, :sentAt, last_message_at), " +
+                   "last_message_id = IF(last_message_id IS NULL OR last_message_id < :messageId, :messageId, last_message_id), " +
+                   "unread_count = unread_count + :unreadIncrement",
+           nativeQuery = true)
+    int recordMessage(@Param("userId") Long userId,
+                      @Param("partnerId") Long partnerId,
+                      @Param("messageId") Long messageId,
+                      @Param("preview") String preview,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("unreadIncrement") long unreadIncrement);
+
+    @Query("SELECT cs.lastMessageId FROM ConversationSummary cs WHERE cs.userId = :userId AND cs.partner.id = :partnerId")
+    Optional<Long> findLastMessageId(@Param("userId") Long userId, @Param("partnerId") Long partnerId);
+
+    // Move the read watermark forward and subtract the messages that were just marked as read
+    @Modifying
+    @Query("UPDATE ConversationSummary cs SET " +
+           "cs.lastReadMessageId = CASE WHEN cs.lastReadMessageId IS NULL OR cs.lastReadMessageId < :upToMessageId " +
+           "THEN :upToMessageId ELSE cs.lastReadMessageId END, " +
+           "cs.unreadCount = CASE WHEN cs.unreadCount > :readCount THEN cs.unreadCount - :readCount ELSE 0 END " +
+           "WHERE cs.userId = :userId AND cs.partner.id = :partnerId")
+    int markRead(@Param("userId") Long userId,
+                 @Param("partnerId") Long partnerId,
+                 @Param("upToMessageId") Long upToMessageId,
+                 @Param("readCount") long readCount);
+}
@@ -3,6 +3,7 @@ package com.data.project_reactnative.repository;
 import com.data.project_reactnative.model.FriendRequest;
 import com.data.project_reactnative.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -34,5 +35,15 @@ public interface FriendRequestRepository extends JpaRepository<FriendRequest, Lo
     @Query("SELECT COUNT(fr) FROM FriendRequest fr WHERE fr.receiver.id = :userId AND fr.status = 'PENDING'")
     long countPendingRequestsByReceiverId(@Param("userId") Long userId);
 
+    // Accepted requests that are missing one of their two Friendship rows (legacy data)
+    @Query("SELECT fr FROM FriendRequest fr WHERE fr.status = 'ACCEPTED' AND (" +
+           "NOT EXISTS (SELECT f FROM Friendship f WHERE f.user.id = fr.sender.id AND f.friend.id = fr.receiver.id) OR " +
+           "NOT EXISTS (SELECT f FROM Friendship f WHERE f.user.id = fr.receiver.id AND f.friend.id = fr.sender.id))")
+    List<FriendRequest> findAcceptedRequestsWithoutFriendship();
+
+    @Modifying
+    @Query("DELETE FROM FriendRequest fr WHERE ((fr.sender.id = :userId1 AND fr.receiver.id = :userId2) OR (fr.sender.id = :userId2 AND fr.receiver.id = :userId1)) AND fr.status = 'ACCEPTED'")
+    int deleteAcceptedRequestsBetweenUsers(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
+
     void deleteBySenderAndReceiver(User sender, User receiver);
 }
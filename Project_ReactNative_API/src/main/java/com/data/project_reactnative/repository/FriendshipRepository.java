@@ -1,5 +1,6 @@
 package com.data.project_reactnative.repository;
 
+import com.data.project_reactnative.dto.FriendDTO;
 import com.data.project_reactnative.model.Friendship;
 import com.data.project_reactnative.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -19,9 +20,22 @@ public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
     @Query("SELECT f FROM Friendship f WHERE f.user.id = :userId")
     List<Friendship> findAllByUserId(@Param("userId") Long userId);
 
+    // Friend list of a user as DTOs, selecting only the profile columns
+    @Query("SELECT new com.data.project_reactnative.dto.FriendDTO(u.id, u.username, u.email, u.phone, u.avatarUrl, u.bio, f.createdAt) " +
+           "FROM Friendship f JOIN f.friend u WHERE f.user.id = :userId")
+    List<FriendDTO> findFriendDTOsByUserId(@Param("userId") Long userId);
+
     @Query("SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END FROM Friendship f WHERE f.user.id = :userId AND f.friend.id = :friendId")
     boolean existsByUserIdAndFriendId(@Param("userId") Long userId, @Param("friendId") Long friendId);
 
+    // Friend ids only, no entities loaded (feed and privacy checks)
+    @Query("SELECT f.friend.id FROM Friendship f WHERE f.user.id = :userId")
+    List<Long> findFriendIdsByUserId(@Param("userId") Long userId);
+
+    // Users that have more than :threshold friends (loaded once at startup by the timeline feed)
+    @Query("SELECT f.user.id FROM Friendship f GROUP BY f.user.id HAVING COUNT(f) > :threshold")
+    List<Long> findUserIdsWithMoreFriendsThan(@Param("threshold") long threshold);
+
     void deleteByUserAndFriend(User user, User friend);
 }
 
@@ -2,21 +2,38 @@ package com.data.project_reactnative.repository;
 
 import com.data.project_reactnative.model.Like;
 import com.data.project_reactnative.model.Post;
-import com.data.project_reactnative.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface LikeRepository extends JpaRepository<Like, Long> {
 
-    // Check if user has liked a post
-    boolean existsByPostAndUser(Post post, User user);
+    // Insert a like unless the user already likes the post (uk_post_like_post_user); returns 0 for a duplicate
+    // and also when the post does not exist (IGNORE turns the foreign key error into a warning)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO post_like (post_id, user_id, created_at) VALUES (:postId, :userId, :now)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("postId") Long postId, @Param("userId") Long userId, @Param("now") LocalDateTime now);
 
-    // Find a specific like by post and user
-    Optional<Like> findByPostAndUser(Post post, User user);
+    @Modifying
+    @Query("DELETE FROM Like l WHERE l.post.id = :postId AND l.user.id = :userId")
+    int deleteByPostIdAndUserId(@Param("postId") Long postId, @Param("userId") Long userId);
 
     // Count likes for a specific post
     long countByPost(Post post);
+
+    // Count likes for a batch of posts, one [postId, count] row per post that has likes
+    @Query("SELECT l.post.id, COUNT(l) FROM Like l WHERE l.post.id IN :postIds GROUP BY l.post.id")
+    List<Object[]> countByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // IDs of the posts in the batch that the user has liked
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
 }
 
 
@@ -0,0 +1,65 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.MediaBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, Long> {
+
+    Optional<MediaBlob> findBySha256(String sha256);
+
+    List<MediaBlob> findByFileNameIn(Collection<String> fileNames);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.imageWidth = :width, b.imageHeight = :height, b.blurHash = :blurHash, " +
+           "b.variantWidths = :variantWidths WHERE b.sha256 = :sha256")
+    int updateImageInfo(@Param("sha256") String sha256, @Param("width") Integer width, @Param("height") Integer height,
+                        @Param("blurHash") String blurHash, @Param("variantWidths") String variantWidths);
+
+    // A duplicate upload restarts the grace period of the blob; returns 0 when there is no live blob
+    // (none stored, or one being collected)
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.lastUploadedAt = :now WHERE b.sha256 = :sha256 AND b.refCount >= 0")
+    int touch(@Param("sha256") String sha256, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount + 1 WHERE b.fileName = :fileName AND b.refCount >= 0")
+    int incrementRefCount(@Param("fileName") String fileName);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount - 1 WHERE b.fileName = :fileName AND b.refCount > 0")
+    int decrementRefCount(@Param("fileName") String fileName);
+
+    // Blobs to collect after the given id as [id, sha256, fileName, variantWidths, refCount] rows:
+    // unreferenced past the cutoff, or marked by a collection that did not finish
+    @Query("SELECT b.id, b.sha256, b.fileName, b.variantWidths, b.refCount FROM MediaBlob b WHERE b.id > :afterId " +
+           "AND ((b.refCount = 0 AND b.lastUploadedAt < :cutoff) OR b.refCount = -1) ORDER BY b.id")
+    List<Object[]> findCollectable(@Param("afterId") Long afterId, @Param("cutoff") LocalDateTime cutoff,
+                                   Pageable pageable);
+
+    // Marks the blob as being collected (refCount -1) only if it is still collectable, so a concurrent upload or
+    // reference keeps it alive. From then on uploads of the same content wait until the row is gone.
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = -1 WHERE b.sha256 = :sha256 AND b.refCount = 0 AND b.lastUploadedAt < :cutoff")
+    int markCollecting(@Param("sha256") String sha256, @Param("cutoff") LocalDateTime cutoff);
+
+    // Removes a blob whose files have been deleted
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MediaBlob b WHERE b.sha256 = :sha256 AND b.refCount = -1")
+    int deleteCollected(@Param("sha256") String sha256);
+}
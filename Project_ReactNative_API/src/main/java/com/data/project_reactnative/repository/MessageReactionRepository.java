@@ -3,8 +3,11 @@ package com.data.project_reactnative.repository;
 import com.data.project_reactnative.model.MessageReaction;
 import com.data.project_reactnative.model.ReactionType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,5 +16,18 @@ public interface MessageReactionRepository extends JpaRepository<MessageReaction
     Optional<MessageReaction> findByMessageIdAndUserIdAndReactionType(Long messageId, Long userId, ReactionType reactionType);
     List<MessageReaction> findByMessageId(Long messageId);
     void deleteByMessageIdAndUserIdAndReactionType(Long messageId, Long userId, ReactionType reactionType);
+
+    // All reactions of a page of messages in one query; user fields come from the profile cache
+    @Query("SELECT r FROM MessageReaction r WHERE r.message.id IN :messageIds ORDER BY r.createdAt ASC")
+    List<MessageReaction> findByMessageIdIn(@Param("messageIds") Collection<Long> messageIds);
+
+    // Per-type reaction counts as [messageId, reactionType, count] rows
+    @Query("SELECT r.message.id, r.reactionType, COUNT(r) FROM MessageReaction r WHERE r.message.id IN :messageIds " +
+           "GROUP BY r.message.id, r.reactionType")
+    List<Object[]> countByMessageIdsAndType(@Param("messageIds") Collection<Long> messageIds);
+
+    // The viewer's own reactions as [messageId, reactionType] rows
+    @Query("SELECT r.message.id, r.reactionType FROM MessageReaction r WHERE r.user.id = :userId AND r.message.id IN :messageIds")
+    List<Object[]> findUserReactions(@Param("userId") Long userId, @Param("messageIds") Collection<Long> messageIds);
 }
 
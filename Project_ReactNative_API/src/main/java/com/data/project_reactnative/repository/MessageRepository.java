@@ -1,12 +1,16 @@
 package com.data.project_reactnative.repository;
 
 import com.data.project_reactnative.model.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -17,6 +21,31 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
            "ORDER BY m.createdAt ASC")
     List<Message> findMessagesBetweenUsers(@Param("userId1") Long userId1, @Param("userId2") Long userId2);
     
+    // Newest messages sent in one direction of a conversation (one range scan on sender_id, receiver_id, created_at)
+    @Query("SELECT m FROM Message m WHERE m.sender.id = :senderId AND m.receiver.id = :receiverId " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestFromSender(@Param("senderId") Long senderId,
+                                       @Param("receiverId") Long receiverId,
+                                       Pageable pageable);
+
+    // Messages sent in one direction that are older than the (createdAt, id) cursor
+    @Query("SELECT m FROM Message m WHERE m.sender.id = :senderId AND m.receiver.id = :receiverId " +
+           "AND (m.createdAt < :cursorCreatedAt OR (m.createdAt = :cursorCreatedAt AND m.id < :cursorId)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findFromSenderBefore(@Param("senderId") Long senderId,
+                                       @Param("receiverId") Long receiverId,
+                                       @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    // Creation time of a message of the conversation between the two users (history cursor)
+    @Query("SELECT m.createdAt FROM Message m WHERE m.id = :messageId AND " +
+           "((m.sender.id = :userId AND m.receiver.id = :otherUserId) OR " +
+           "(m.sender.id = :otherUserId AND m.receiver.id = :userId))")
+    Optional<LocalDateTime> findCreatedAtInConversation(@Param("messageId") Long messageId,
+                                                        @Param("userId") Long userId,
+                                                        @Param("otherUserId") Long otherUserId);
+    
     // Get unread messages for a user
     @Query("SELECT m FROM Message m WHERE m.receiver.id = :userId AND m.isRead = false")
     List<Message> findUnreadMessagesForUser(@Param("userId") Long userId);
@@ -25,7 +54,16 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     @Query("SELECT COUNT(m) FROM Message m WHERE m.receiver.id = :userId AND m.isRead = false")
     long countUnreadMessagesForUser(@Param("userId") Long userId);
     
-    // Mark messages as read
-    @Query("UPDATE Message m SET m.isRead = true WHERE m.receiver.id = :userId AND m.sender.id = :senderId AND m.isRead = false")
-    void markMessagesAsRead(@Param("userId") Long userId, @Param("senderId") Long senderId);
+    // Per-direction summary [senderId, receiverId, maxMessageId, unreadCount], used to rebuild conversation summaries
+    @Query("SELECT m.sender.id, m.receiver.id, MAX(m.id), SUM(CASE WHEN m.isRead = false THEN 1 ELSE 0 END) " +
+           "FROM Message m GROUP BY m.sender.id, m.receiver.id")
+    List<Object[]> summarizeByDirection();
+    
+    // Mark messages from sender as read, up to and including the watermark message id
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.receiver.id = :userId AND m.sender.id = :senderId " +
+           "AND m.isRead = false AND m.id <= :upToMessageId")
+    int markMessagesAsRead(@Param("userId") Long userId,
+                           @Param("senderId") Long senderId,
+                           @Param("upToMessageId") Long upToMessageId);
 }
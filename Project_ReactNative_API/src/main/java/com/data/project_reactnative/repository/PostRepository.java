@@ -2,10 +2,15 @@ package com.data.project_reactnative.repository;
 
 import com.data.project_reactnative.model.Post;
 import com.data.project_reactnative.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
@@ -17,9 +22,67 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p FROM Post p WHERE p.user.id IN :userIds ORDER BY p.createdAt DESC")
     List<Post> findByUserIdInOrderByCreatedAtDesc(@Param("userIds") List<Long> userIds);
 
+    // First page of the newsfeed (keyset pagination on createdAt, id)
+    @Query("SELECT p FROM Post p WHERE p.user.id IN :userIds AND p.privacy <> 'PRIVATE' " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedFirstPage(@Param("userIds") List<Long> userIds, Pageable pageable);
+
+    // Next page of the newsfeed, strictly older than the (createdAt, id) cursor
+    @Query("SELECT p FROM Post p WHERE p.user.id IN :userIds AND p.privacy <> 'PRIVATE' " +
+           "AND (p.createdAt < :cursorCreatedAt OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Post> findFeedPageBefore(@Param("userIds") List<Long> userIds,
+                                  @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                  @Param("cursorId") Long cursorId,
+                                  Pageable pageable);
+
+    // Feed entries of the given authors as [id, userId, createdAt] rows (fan-out-on-read part of the timeline feed)
+    @Query("SELECT p.id, p.user.id, p.createdAt FROM Post p WHERE p.user.id IN :userIds AND p.privacy <> 'PRIVATE' " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Object[]> findFeedEntriesFirstPage(@Param("userIds") List<Long> userIds, Pageable pageable);
+
+    @Query("SELECT p.id, p.user.id, p.createdAt FROM Post p WHERE p.user.id IN :userIds AND p.privacy <> 'PRIVATE' " +
+           "AND (p.createdAt < :cursorCreatedAt OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Object[]> findFeedEntriesPageBefore(@Param("userIds") List<Long> userIds,
+                                             @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
     // Find all public posts ordered by creation date
     @Query("SELECT p FROM Post p WHERE p.privacy = 'PUBLIC' ORDER BY p.createdAt DESC")
     List<Post> findPublicPostsOrderByCreatedAtDesc();
-}
 
+    // Atomic counter updates (no read-modify-write on the entity)
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + 1 WHERE p.id = :postId")
+    int incrementLikeCount(@Param("postId") Long postId);
 
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount - 1 WHERE p.id = :postId AND p.likeCount > 0")
+    int decrementLikeCount(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + 1 WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") Long postId);
+
+    // Batch of [id, likeCount, commentCount] rows after the given id, used by the counter reconciler
+    @Query("SELECT p.id, p.likeCount, p.commentCount FROM Post p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Object[]> findCounterSnapshot(@Param("afterId") Long afterId, Pageable pageable);
+
+    // [id, likeCount, commentCount] rows of the given posts
+    @Query("SELECT p.id, p.likeCount, p.commentCount FROM Post p WHERE p.id IN :postIds ORDER BY p.id ASC")
+    List<Object[]> findCounterSnapshotByIds(@Param("postIds") Collection<Long> postIds);
+
+    // Compare-and-set correction: applied only while the counters still hold the snapshot values the counts
+    // were compared with, so an increment committed in between is never overwritten
+    @Transactional
+    @Modifying
+    @Query("UPDATE Post p SET p.likeCount = :likeCount, p.commentCount = :commentCount WHERE p.id = :postId " +
+           "AND p.likeCount = :expectedLikeCount AND p.commentCount = :expectedCommentCount")
+    int updateCountersIfUnchanged(@Param("postId") Long postId,
+                                  @Param("expectedLikeCount") long expectedLikeCount,
+                                  @Param("expectedCommentCount") long expectedCommentCount,
+                                  @Param("likeCount") long likeCount,
+                                  @Param("commentCount") long commentCount);
+}
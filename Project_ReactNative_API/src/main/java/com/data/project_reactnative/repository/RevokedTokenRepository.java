@@ -0,0 +1,23 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    // Revocations that still matter, as [jti, expiresAt] rows
+    @Query("SELECT t.jti, t.expiresAt FROM RevokedToken t WHERE t.expiresAt > :now")
+    List<Object[]> findActive(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RevokedToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,16 @@
+package com.data.project_reactnative.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Closed projection of the public profile columns of a user; selects no password and no associations
+ */
+public interface UserProfileView {
+    Long getId();
+    String getUsername();
+    String getEmail();
+    String getPhone();
+    String getAvatarUrl();
+    String getBio();
+    LocalDateTime getCreatedAt();
+}
@@ -4,6 +4,8 @@ import com.data.project_reactnative.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +15,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhone(String phone);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+
+    // Profile columns only, for read paths that do not need the entity
+    List<UserProfileView> findProfilesByIdIn(Collection<Long> ids);
+    Optional<UserProfileView> findProfileByEmail(String email);
 }
@@ -0,0 +1,26 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.UserTimeline;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface UserTimelineRepository extends JpaRepository<UserTimeline, Long> {
+
+    // Newest timeline entries of a user as [postId, authorId, postCreatedAt] rows
+    @Query("SELECT t.postId, t.authorId, t.postCreatedAt FROM UserTimeline t WHERE t.userId = :userId " +
+           "ORDER BY t.postCreatedAt DESC, t.postId DESC")
+    List<Object[]> findRecentEntries(@Param("userId") Long userId, Pageable pageable);
+
+    // Drop entries older than the retention window
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserTimeline t WHERE t.postCreatedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
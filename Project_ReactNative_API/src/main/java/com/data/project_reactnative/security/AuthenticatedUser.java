@@ -0,0 +1,67 @@
+package com.data.project_reactnative.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated principal built only from verified JWT claims, so no user lookup is needed per request.
+ * getName() returns the email, which keeps authentication.getName() unchanged for existing callers.
+ */
+public class AuthenticatedUser implements Principal, Serializable {
+
+    private final Long id;
+    private final String email;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String email, Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.email = email;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    /**
+     * Get the principal of the current request
+     */
+    public static AuthenticatedUser current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser)) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return (AuthenticatedUser) authentication.getPrincipal();
+    }
+
+    /**
+     * Get the id of the current user
+     */
+    public static Long currentUserId() {
+        return current().getId();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{id=" + id + ", email=" + email + "}";
+    }
+}
@@ -1,13 +1,12 @@
 package com.data.project_reactnative.security;
 
-import com.data.project_reactnative.model.User;
-import com.data.project_reactnative.repository.UserRepository;
+import com.data.project_reactnative.service.TokenRevocationService;
 import com.data.project_reactnative.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,6 +15,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,32 +24,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserRepository userRepository;
-
-    @Autowired
-    private UserDetailsService userDetailsService;
+    private TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        Claims claims = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+            String token = authHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(token);
+                // Parsing verifies the signature and the expiration
+                claims = jwtUtil.parseClaims(token);
             } catch (Exception ignored) {
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, username)) {
-                // Always use email (username) as principal, not User object
-                // This ensures authentication.getName() returns email string
+        if (claims != null && tokenRevocationService.isRevoked(claims.getId())) {
+            claims = null;
+        }
+
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Long userId = jwtUtil.getUserId(claims);
+            // Tokens issued without a userId claim cannot be resolved without a lookup and are not accepted
+            if (userId != null && claims.getSubject() != null) {
+                List<GrantedAuthority> authorities = jwtUtil.getAuthorities(claims);
+                AuthenticatedUser principal = new AuthenticatedUser(userId, claims.getSubject(), authorities);
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(username, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
@@ -57,4 +59,3 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 }
-
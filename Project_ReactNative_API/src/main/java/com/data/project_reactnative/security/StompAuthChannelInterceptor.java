@@ -0,0 +1,78 @@
+package com.data.project_reactnative.security;
+
+import com.data.project_reactnative.service.TokenRevocationService;
+import com.data.project_reactnative.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Authenticates STOMP CONNECT frames with the same JWT used by the REST API.
+ * The session principal name is the user id, so events can be addressed with convertAndSendToUser(userId, ...).
+ * The channel is push-only: clients may subscribe to their own queues but never SEND, since a SEND to
+ * /user/{id}/queue/... would be delivered to that user as if the server had published it.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String authHeader = accessor.getFirstNativeHeader("Authorization");
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                throw new MessagingException("Missing or invalid Authorization header");
+            }
+
+            String token = authHeader.substring(7);
+            Claims claims;
+            try {
+                // Parsing verifies the signature and the expiration
+                claims = jwtUtil.parseClaims(token);
+            } catch (Exception e) {
+                throw new MessagingException("Invalid token");
+            }
+            if (tokenRevocationService.isRevoked(claims.getId())) {
+                throw new MessagingException("Token revoked");
+            }
+            Long userId = jwtUtil.getUserId(claims);
+            if (userId == null) {
+                throw new MessagingException("Token has no userId");
+            }
+
+            accessor.setUser(new UsernamePasswordAuthenticationToken(
+                    String.valueOf(userId), null, List.of(new SimpleGrantedAuthority("USER"))));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            // Clients may only subscribe to their own user queues
+            String destination = accessor.getDestination();
+            if (accessor.getUser() == null || destination == null || !destination.startsWith("/user/queue/")) {
+                throw new MessagingException("Subscription not allowed: " + destination);
+            }
+        } else if (StompCommand.SEND.equals(accessor.getCommand())) {
+            throw new MessagingException("Sending is not allowed: " + accessor.getDestination());
+        }
+
+        return message;
+    }
+}
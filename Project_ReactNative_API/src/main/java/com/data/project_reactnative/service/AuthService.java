@@ -4,25 +4,54 @@ import com.data.project_reactnative.dto.*;
 import com.data.project_reactnative.exception.InvalidCredentialsException;
 import com.data.project_reactnative.exception.UserAlreadyExistsException;
 import com.data.project_reactnative.exception.UserNotFoundException;
+import com.data.project_reactnative.model.RefreshToken;
 import com.data.project_reactnative.model.User;
+import com.data.project_reactnative.repository.RefreshTokenRepository;
 import com.data.project_reactnative.repository.UserRepository;
 import com.data.project_reactnative.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
 
 @Service
 public class AuthService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
+
+    private static final int REFRESH_TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpiration;
+
     public MessageResponse register(RegisterRequest request) {
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -38,25 +67,108 @@ public class AuthService {
         User user = new User();
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         userRepository.save(user);
+        userProfileCache.invalidate(user.getId());
 
         return new MessageResponse("User registered successfully");
     }
 
+    // Not transactional: no connection is held while the request waits for a hashing thread
     public AuthResponse login(LoginRequest request) {
         // Find user by email
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new InvalidCredentialsException("Invalid email or password"));
 
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
+        // Re-hash with the configured cost while the plain password is at hand
+        if (passwordHashingService.needsUpgrade(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(request.getPassword()));
+            userRepository.save(user);
+            logger.info("Upgraded password hash of user {}", user.getId());
+        }
+
+        return issueTokens(user, "Login successful");
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * Refresh tokens are single-use; replaying a used one revokes every refresh token of the user.
+     * InvalidCredentialsException does not roll back, so that revocation commits even though the call fails.
+     */
+    @Transactional(noRollbackFor = InvalidCredentialsException.class)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        if (request.getRefreshToken() == null || request.getRefreshToken().isBlank()) {
+            throw new InvalidCredentialsException("Invalid refresh token");
+        }
+
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(jwtUtil.hashToken(request.getRefreshToken()))
+                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshToken.getRevokedAt() != null) {
+            throw revokeFamily(refreshToken, now);
+        }
+        if (refreshToken.getExpiresAt().isBefore(now)) {
+            throw new InvalidCredentialsException("Refresh token expired");
+        }
+        // Compare-and-set: when two refreshes race on the same token only one of them rotates it
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId(), now) == 0) {
+            throw revokeFamily(refreshToken, now);
+        }
+
+        User user = userRepository.findById(refreshToken.getUserId())
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+
+        return issueTokens(user, "Token refreshed");
+    }
+
+    /**
+     * Revoke every refresh token of the user of a replayed token; returns the exception to throw
+     */
+    private InvalidCredentialsException revokeFamily(RefreshToken replayed, LocalDateTime now) {
+        logger.warn("Revoked refresh token {} replayed - revoking all refresh tokens of user {}",
+                replayed.getId(), replayed.getUserId());
+        refreshTokenRepository.revokeAllForUser(replayed.getUserId(), now);
+        return new InvalidCredentialsException("Invalid refresh token");
+    }
+
+    /**
+     * Revoke the given refresh token and the access token from the Authorization header, when present
+     */
+    @Transactional
+    public MessageResponse logout(RefreshTokenRequest request, String authHeader) {
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenRepository.findByTokenHash(jwtUtil.hashToken(request.getRefreshToken()))
+                    .filter(token -> token.getRevokedAt() == null)
+                    .ifPresent(token -> {
+                        token.setRevokedAt(LocalDateTime.now());
+                        refreshTokenRepository.save(token);
+                    });
+        }
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtUtil.parseClaims(authHeader.substring(7));
+                tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+            } catch (Exception e) {
+                // Invalid or expired access tokens need no revocation
+                logger.debug("Ignoring invalid access token on logout: {}", e.getMessage());
+            }
+        }
+
+        return new MessageResponse("Logout successful");
+    }
+
+    private AuthResponse issueTokens(User user, String message) {
         // Generate JWT token with userId
         String token = jwtUtil.generateToken(user.getEmail(), user.getId());
+        String refreshToken = createRefreshToken(user.getId());
 
         // Create user response
         UserResponse userResponse = new UserResponse(
@@ -68,7 +180,19 @@ public class AuthService {
                 user.getCreatedAt()
         );
 
-        return new AuthResponse(token, "Login successful", userResponse);
+        return new AuthResponse(token, refreshToken, jwtUtil.getExpirationMs() / 1000, message, userResponse);
     }
-}
 
+    private String createRefreshToken(Long userId) {
+        byte[] bytes = new byte[REFRESH_TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setTokenHash(jwtUtil.hashToken(value));
+        refreshToken.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)));
+        refreshTokenRepository.save(refreshToken);
+        return value;
+    }
+}
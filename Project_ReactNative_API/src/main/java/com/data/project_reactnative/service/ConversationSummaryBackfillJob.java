@@ -0,0 +1,29 @@
+package com.data.project_reactnative.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * One-time backfill: builds conversation_summary rows for conversations that existed before the read model.
+ * Enable with conversation-summary.backfill.enabled=true for a single start-up, then turn it off again.
+ */
+@Service
+@ConditionalOnProperty(name = "conversation-summary.backfill.enabled", havingValue = "true")
+public class ConversationSummaryBackfillJob implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSummaryBackfillJob.class);
+
+    @Autowired
+    private ConversationSummaryService conversationSummaryService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int count = conversationSummaryService.rebuildAll();
+        logger.info("Conversation summary backfill: {} summaries written", count);
+    }
+}
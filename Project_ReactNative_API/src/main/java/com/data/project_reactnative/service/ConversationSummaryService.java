@@ -0,0 +1,144 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.ConversationSummary;
+import com.data.project_reactnative.model.Message;
+import com.data.project_reactnative.repository.ConversationSummaryRepository;
+import com.data.project_reactnative.repository.MessageRepository;
+import com.data.project_reactnative.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the conversation_summary inbox read model
+ */
+@Service
+public class ConversationSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSummaryService.class);
+
+    private static final int MAX_PREVIEW_LENGTH = 255;
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Update both sides of the conversation for a newly sent message (runs in the caller's transaction)
+     */
+    public void recordMessage(Message message) {
+        String preview = buildPreview(message);
+
+        // Receiver gets one more unread message, sender's own row only moves the last message
+        upsert(message.getReceiver().getId(), message.getSender().getId(), message, preview, 1);
+        upsert(message.getSender().getId(), message.getReceiver().getId(), message, preview, 0);
+    }
+
+    /**
+     * Get the id of the latest message in a user's conversation with a partner, if the conversation exists
+     */
+    public Optional<Long> findLastMessageId(Long userId, Long partnerId) {
+        return conversationSummaryRepository.findLastMessageId(userId, partnerId);
+    }
+
+    /**
+     * Advance the read watermark of a user's conversation and drop readCount messages from its unread count
+     */
+    public void markRead(Long userId, Long partnerId, Long upToMessageId, long readCount) {
+        conversationSummaryRepository.markRead(userId, partnerId, upToMessageId, readCount);
+    }
+
+    /**
+     * Get the inbox of a user, most recent conversation first
+     */
+    public List<ConversationSummary> getInbox(Long userId) {
+        return conversationSummaryRepository.findInbox(userId);
+    }
+
+    /**
+     * Rebuild every summary from the message table (used once to backfill existing conversations)
+     */
+    @Transactional
+    public int rebuildAll() {
+        // [senderId, receiverId, maxMessageId, unreadCount] per direction
+        List<Object[]> directions = messageRepository.summarizeByDirection();
+
+        Map<String, long[]> pairs = new HashMap<>();
+        for (Object[] row : directions) {
+            long senderId = (Long) row[0];
+            long receiverId = (Long) row[1];
+            long maxMessageId = ((Number) row[2]).longValue();
+            long unread = ((Number) row[3]).longValue();
+
+            // The receiver's row holds the unread count; both rows share the latest message
+            long[] receiverSide = pairs.computeIfAbsent(receiverId + ":" + senderId,
+                    key -> new long[]{receiverId, senderId, 0, 0});
+            receiverSide[2] = Math.max(receiverSide[2], maxMessageId);
+            receiverSide[3] += unread;
+
+            long[] senderSide = pairs.computeIfAbsent(senderId + ":" + receiverId,
+                    key -> new long[]{senderId, receiverId, 0, 0});
+            senderSide[2] = Math.max(senderSide[2], maxMessageId);
+        }
+
+        conversationSummaryRepository.deleteAllInBatch();
+
+        List<long[]> pairList = new ArrayList<>(pairs.values());
+        for (int from = 0; from < pairList.size(); from += REBUILD_BATCH_SIZE) {
+            List<long[]> batch = pairList.subList(from, Math.min(from + REBUILD_BATCH_SIZE, pairList.size()));
+
+            List<Long> messageIds = new ArrayList<>();
+            for (long[] pair : batch) {
+                messageIds.add(pair[2]);
+            }
+            Map<Long, Message> messagesById = new HashMap<>();
+            for (Message message : messageRepository.findAllById(messageIds)) {
+                messagesById.put(message.getId(), message);
+            }
+
+            List<ConversationSummary> summaries = new ArrayList<>(batch.size());
+            for (long[] pair : batch) {
+                Message lastMessage = messagesById.get(pair[2]);
+                ConversationSummary summary = new ConversationSummary();
+                summary.setUserId(pair[0]);
+                summary.setPartner(userRepository.getReferenceById(pair[1]));
+                summary.setLastMessageId(lastMessage.getId());
+                summary.setLastMessagePreview(buildPreview(lastMessage));
+                summary.setLastMessageAt(lastMessage.getCreatedAt());
+                summary.setUnreadCount(pair[3]);
+                summaries.add(summary);
+            }
+            conversationSummaryRepository.saveAll(summaries);
+        }
+
+        logger.info("Rebuilt {} conversation summaries", pairList.size());
+        return pairList.size();
+    }
+
+    private void upsert(Long userId, Long partnerId, Message message, String preview, long unreadIncrement) {
+        conversationSummaryRepository.recordMessage(userId, partnerId, message.getId(), preview,
+                message.getCreatedAt(), unreadIncrement);
+    }
+
+    private String buildPreview(Message message) {
+        String preview = message.getContent() != null
+                ? message.getContent()
+                : (message.getImageUrl() != null ? "📷 Image" : "🎥 Video");
+        return preview.length() > MAX_PREVIEW_LENGTH ? preview.substring(0, MAX_PREVIEW_LENGTH) : preview;
+    }
+}
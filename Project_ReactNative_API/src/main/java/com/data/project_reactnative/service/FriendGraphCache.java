@@ -0,0 +1,122 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.config.PrimaryReads;
+import com.data.project_reactnative.repository.FriendshipRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory cache of the friend graph. Each user's friends are kept as a sorted long[]
+ * so privacy checks are an in-memory binary search instead of database round trips.
+ * Entries are loaded lazily, from the primary so a reload right after an invalidation cannot cache a lagging
+ * replica's graph, and evicted in LRU order once the cache is full.
+ */
+@Service
+public class FriendGraphCache {
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private PrimaryReads primaryReads;
+
+    @Value("${friend-graph.cache.max-users:10000}")
+    private int maxUsers;
+
+    private final Map<Long, long[]> adjacency = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > maxUsers;
+        }
+    };
+
+    // Bumped on every invalidation so a load that raced with it is not cached
+    private long version = 0;
+
+    /**
+     * Get the sorted friend ids of a user
+     */
+    public long[] getFriendIds(Long userId) {
+        long loadVersion;
+        synchronized (this) {
+            long[] cached = adjacency.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+            loadVersion = version;
+        }
+
+        long[] loaded = loadFriendIds(userId);
+
+        synchronized (this) {
+            if (loadVersion == version) {
+                adjacency.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Get the friend ids of a user as a list (for IN queries)
+     */
+    public List<Long> getFriendIdList(Long userId) {
+        long[] friendIds = getFriendIds(userId);
+        List<Long> result = new ArrayList<>(friendIds.length);
+        for (long friendId : friendIds) {
+            result.add(friendId);
+        }
+        return result;
+    }
+
+    /**
+     * Check whether two users are friends
+     */
+    public boolean areFriends(Long userId, Long otherUserId) {
+        return Arrays.binarySearch(getFriendIds(userId), otherUserId) >= 0;
+    }
+
+    /**
+     * Drop the cached friends of the given users. When called inside a transaction the entries
+     * are dropped again after commit, so a concurrent reload cannot keep the pre-commit graph.
+     */
+    public void invalidate(Long... userIds) {
+        evict(userIds);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userIds);
+                }
+            });
+        }
+    }
+
+    private synchronized void evict(Long... userIds) {
+        version++;
+        for (Long userId : userIds) {
+            adjacency.remove(userId);
+        }
+    }
+
+    private long[] loadFriendIds(Long userId) {
+        List<Long> ids = primaryReads.read(() -> friendshipRepository.findFriendIdsByUserId(userId));
+
+        long[] friendIds = new long[ids.size()];
+        for (int i = 0; i < friendIds.length; i++) {
+            friendIds[i] = ids.get(i);
+        }
+
+        Arrays.sort(friendIds);
+        return friendIds;
+    }
+}
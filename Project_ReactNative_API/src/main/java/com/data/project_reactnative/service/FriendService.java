@@ -5,12 +5,13 @@ import com.data.project_reactnative.dto.FriendRequestDTO;
 import com.data.project_reactnative.dto.UserBasicDTO;
 import com.data.project_reactnative.model.*;
 import com.data.project_reactnative.repository.*;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class FriendService {
@@ -27,6 +28,21 @@ public class FriendService {
     @Autowired
     private BlockedUserRepository blockedUserRepository;
 
+    @Autowired
+    private FriendGraphCache friendGraphCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private RealtimeEventPublisher realtimeEventPublisher;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
     // Tìm kiếm người dùng theo số điện thoại
     public UserBasicDTO searchUserByPhone(String phone) {
         User user = userRepository.findByPhone(phone)
@@ -74,7 +90,11 @@ public class FriendService {
 
         FriendRequest savedRequest = friendRequestRepository.save(friendRequest);
 
-        return convertToFriendRequestDTO(savedRequest);
+        notificationCounterService.adjustFriendRequests(receiverId, 1);
+
+        FriendRequestDTO requestDTO = convertToFriendRequestDTO(savedRequest);
+        realtimeEventPublisher.publishToUser(receiverId, "FRIEND_REQUEST", requestDTO);
+        return requestDTO;
     }
 
     // Chấp nhận lời mời kết bạn
@@ -108,6 +128,10 @@ public class FriendService {
         // Cập nhật trạng thái lời mời
         friendRequest.setStatus(FriendRequest.Status.ACCEPTED);
         friendRequestRepository.save(friendRequest);
+        notificationCounterService.adjustFriendRequests(userId, -1);
+
+        friendGraphCache.invalidate(friendRequest.getSender().getId(), friendRequest.getReceiver().getId());
+        timelineService.friendshipsChanged(friendRequest.getSender().getId(), friendRequest.getReceiver().getId());
 
         return "Đã chấp nhận lời mời kết bạn";
     }
@@ -130,6 +154,7 @@ public class FriendService {
 
         // Xóa lời mời
         friendRequestRepository.delete(friendRequest);
+        notificationCounterService.adjustFriendRequests(userId, -1);
 
         return "Đã từ chối lời mời kết bạn";
     }
@@ -155,6 +180,7 @@ public class FriendService {
 
         // Xóa lời mời
         friendRequestRepository.delete(friendRequest);
+        notificationCounterService.adjustFriendRequests(receiverId, -1);
 
         return "Đã hủy lời mời kết bạn";
     }
@@ -177,36 +203,34 @@ public class FriendService {
         friendshipRepository.deleteByUserAndFriend(user, friend);
         friendshipRepository.deleteByUserAndFriend(friend, user);
 
+        // Friendship is the source of truth; drop the accepted request so it cannot be backfilled again
+        friendRequestRepository.deleteAcceptedRequestsBetweenUsers(userId, friendId);
+
+        friendGraphCache.invalidate(userId, friendId);
+        timelineService.friendshipsChanged(userId, friendId);
+
         return "Đã hủy kết bạn";
     }
 
     // Lấy danh sách lời mời kết bạn
+    @Transactional(readOnly = true)
     public List<FriendRequestDTO> getFriendRequests(Long userId) {
         List<FriendRequest> requests = friendRequestRepository.findPendingRequestsByReceiverId(userId);
 
+        // Load the profiles of all senders and receivers with one query; the conversions below are then cache hits
+        userProfileCache.getAll(requests.stream()
+                .flatMap(request -> Stream.of(request.getSender().getId(), request.getReceiver().getId()))
+                .collect(Collectors.toSet()));
+
         return requests.stream()
                 .map(this::convertToFriendRequestDTO)
                 .collect(Collectors.toList());
     }
 
     // Lấy danh sách bạn bè
+    @Transactional(readOnly = true)
     public List<FriendDTO> getFriends(Long userId) {
-        List<Friendship> friendships = friendshipRepository.findAllByUserId(userId);
-
-        return friendships.stream()
-                .map(friendship -> {
-                    User friend = friendship.getFriend();
-                    return new FriendDTO(
-                            friend.getId(),
-                            friend.getUsername(),
-                            friend.getEmail(),
-                            friend.getPhone(),
-                            friend.getAvatarUrl(),
-                            friend.getBio(),
-                            friendship.getCreatedAt()
-                    );
-                })
-                .collect(Collectors.toList());
+        return friendshipRepository.findFriendDTOsByUserId(userId);
     }
 
     // Chặn người dùng
@@ -233,12 +257,19 @@ public class FriendService {
             friendshipRepository.deleteByUserAndFriend(blocker, blocked);
             friendshipRepository.deleteByUserAndFriend(blocked, blocker);
         }
+        friendRequestRepository.deleteAcceptedRequestsBetweenUsers(blockerId, blockedId);
 
         // Xóa các lời mời kết bạn đang chờ
         friendRequestRepository.findPendingRequestBySenderAndReceiver(blockerId, blockedId)
-                .ifPresent(friendRequestRepository::delete);
+                .ifPresent(request -> {
+                    friendRequestRepository.delete(request);
+                    notificationCounterService.adjustFriendRequests(blockedId, -1);
+                });
         friendRequestRepository.findPendingRequestBySenderAndReceiver(blockedId, blockerId)
-                .ifPresent(friendRequestRepository::delete);
+                .ifPresent(request -> {
+                    friendRequestRepository.delete(request);
+                    notificationCounterService.adjustFriendRequests(blockerId, -1);
+                });
 
         // Tạo bản ghi chặn
         BlockedUser blockedUser = new BlockedUser();
@@ -246,6 +277,9 @@ public class FriendService {
         blockedUser.setBlocked(blocked);
         blockedUserRepository.save(blockedUser);
 
+        friendGraphCache.invalidate(blockerId, blockedId);
+        timelineService.friendshipsChanged(blockerId, blockedId);
+
         return "Đã chặn người dùng";
     }
 
@@ -276,13 +310,18 @@ public class FriendService {
 
     // Helper methods
     private UserBasicDTO convertToUserBasicDTO(User user) {
+        UserProfileCache.UserProfile profile = userProfileCache.get(user.getId());
+        if (profile == null) {
+            return new UserBasicDTO(user.getId(), user.getUsername(), user.getEmail(), user.getPhone(),
+                    user.getAvatarUrl(), user.getBio());
+        }
         return new UserBasicDTO(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getPhone(),
-                user.getAvatarUrl(),
-                user.getBio()
+                profile.getId(),
+                profile.getUsername(),
+                profile.getEmail(),
+                profile.getPhone(),
+                profile.getAvatarUrl(),
+                profile.getBio()
         );
     }
 
@@ -0,0 +1,75 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.FriendRequest;
+import com.data.project_reactnative.model.Friendship;
+import com.data.project_reactnative.model.User;
+import com.data.project_reactnative.repository.FriendRequestRepository;
+import com.data.project_reactnative.repository.FriendshipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * One-time backfill: creates the missing Friendship rows for legacy ACCEPTED friend requests,
+ * so the friendships table can be used as the only source of truth for the friend graph.
+ * Enable with friendship.backfill.enabled=true for a single start-up, then turn it off again.
+ */
+@Service
+@ConditionalOnProperty(name = "friendship.backfill.enabled", havingValue = "true")
+public class FriendshipBackfillJob implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(FriendshipBackfillJob.class);
+
+    @Autowired
+    private FriendRequestRepository friendRequestRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private FriendGraphCache friendGraphCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        List<FriendRequest> requests = friendRequestRepository.findAcceptedRequestsWithoutFriendship();
+        logger.info("Friendship backfill: {} accepted requests without friendship rows", requests.size());
+
+        int created = 0;
+        for (FriendRequest request : requests) {
+            User sender = request.getSender();
+            User receiver = request.getReceiver();
+
+            if (!friendshipRepository.existsByUserIdAndFriendId(sender.getId(), receiver.getId())) {
+                friendshipRepository.save(newFriendship(sender, receiver));
+                created++;
+            }
+            if (!friendshipRepository.existsByUserIdAndFriendId(receiver.getId(), sender.getId())) {
+                friendshipRepository.save(newFriendship(receiver, sender));
+                created++;
+            }
+
+            friendGraphCache.invalidate(sender.getId(), receiver.getId());
+            timelineService.friendshipsChanged(sender.getId(), receiver.getId());
+        }
+
+        logger.info("Friendship backfill: created {} friendship rows", created);
+    }
+
+    private Friendship newFriendship(User user, User friend) {
+        Friendship friendship = new Friendship();
+        friendship.setUser(user);
+        friendship.setFriend(friend);
+        return friendship;
+    }
+}
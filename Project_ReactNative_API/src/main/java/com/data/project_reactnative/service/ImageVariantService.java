@@ -0,0 +1,269 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.MediaBlob;
+import com.data.project_reactnative.repository.MediaBlobRepository;
+import com.data.project_reactnative.storage.MediaStore;
+import com.data.project_reactnative.util.BlurHash;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Generates resized JPEG variants (media.variants.widths) and a BlurHash placeholder for uploaded post images.
+ * Work runs on a small bounded pool after the upload has returned; if the queue is full the image is simply
+ * served without variants. Variants are named {@code <sha256>_w<width>.jpg} next to the original.
+ * Images whose header declares more than media.variants.max-pixels pixels are not decoded, so a small but
+ * highly compressed upload cannot exhaust the heap.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private static final int BLUR_HASH_SAMPLE_WIDTH = 32;
+
+    @Autowired
+    private MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Value("${media.variants.widths:320,640,1080}")
+    private List<Integer> widths;
+
+    @Value("${media.variants.threads:2}")
+    private int threads;
+
+    @Value("${media.variants.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${media.variants.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${media.variants.max-pixels:40000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        widths = widths.stream().sorted().distinct().collect(Collectors.toList());
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(Math.max(1, threads), Math.max(1, threads), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public List<Integer> getWidths() {
+        return widths;
+    }
+
+    /**
+     * Queue variant generation for a stored image (no-op for videos, GIFs and images already processed)
+     */
+    public void schedule(MediaStorageService.StoredMedia media) {
+        String contentType = media.getContentType() != null ? media.getContentType().toLowerCase() : "";
+        if (!contentType.startsWith("image") || contentType.contains("gif")) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    process(media.getSha256(), media.getFileName());
+                } catch (Exception e) {
+                    logger.warn("Could not generate variants for {}: {}", media.getFileName(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Image variant queue full - {} is served without variants", media.getFileName());
+        }
+    }
+
+    /**
+     * Variant information of stored images, by file name
+     */
+    public Map<String, MediaBlob> findProcessed(Collection<String> fileNames) {
+        Map<String, MediaBlob> blobs = new HashMap<>();
+        if (fileNames.isEmpty()) {
+            return blobs;
+        }
+        for (MediaBlob blob : mediaBlobRepository.findByFileNameIn(fileNames)) {
+            if (blob.getBlurHash() != null) {
+                blobs.put(blob.getFileName(), blob);
+            }
+        }
+        return blobs;
+    }
+
+    /**
+     * Variant URLs by width, derived from the URL of the original
+     */
+    public Map<Integer, String> variantUrls(String imageUrl, MediaBlob blob) {
+        Map<Integer, String> urls = new LinkedHashMap<>();
+        if (blob.getVariantWidths() == null || blob.getVariantWidths().isEmpty()) {
+            return urls;
+        }
+        String base = imageUrl.substring(0, imageUrl.lastIndexOf('/') + 1);
+        for (String width : blob.getVariantWidths().split(",")) {
+            int w = Integer.parseInt(width);
+            urls.put(w, base + variantFileName(blob.getFileName(), w));
+        }
+        return urls;
+    }
+
+    /**
+     * File name of the smallest generated variant at least requestedWidth wide, or null when there is none
+     */
+    public String resolveVariant(String fileName, int requestedWidth) throws IOException {
+        for (int width : widths) {
+            if (width < requestedWidth) {
+                continue;
+            }
+            String variant = variantFileName(fileName, width);
+            if (mediaStore.exists(variant)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    public static String variantFileName(String fileName, int width) {
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot != -1 ? fileName.substring(0, dot) : fileName;
+        return baseName + "_w" + width + ".jpg";
+    }
+
+    private void process(String sha256, String fileName) throws IOException {
+        // Duplicate uploads share the variants of the first one
+        if (mediaBlobRepository.findBySha256(sha256).map(MediaBlob::getBlurHash).isPresent()) {
+            return;
+        }
+
+        BufferedImage original = readImage(fileName);
+        if (original == null) {
+            return;
+        }
+
+        List<Integer> generated = new ArrayList<>();
+        for (int width : widths) {
+            if (width >= original.getWidth()) {
+                break;
+            }
+            BufferedImage resized = resize(original, width);
+            Path temp = mediaStore.createTempFile();
+            try {
+                writeJpeg(resized, temp);
+                mediaStore.put(variantFileName(fileName, width), temp, "image/jpeg");
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            generated.add(width);
+        }
+
+        String blurHash = BlurHash.encode(resize(original, Math.min(BLUR_HASH_SAMPLE_WIDTH, original.getWidth())), 4, 3);
+        String variantWidths = generated.stream().map(Objects::toString).collect(Collectors.joining(","));
+        mediaBlobRepository.updateImageInfo(sha256, original.getWidth(), original.getHeight(), blurHash, variantWidths);
+        logger.info("Generated variants {} for {}", variantWidths, fileName);
+    }
+
+    /**
+     * Decode a stored image, or null when there is no reader for it or it is larger than maxPixels.
+     * The dimensions are read from the header first, before any pixel data is allocated.
+     */
+    private BufferedImage readImage(String fileName) throws IOException {
+        try (InputStream in = mediaStore.open(fileName);
+             ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream != null ? ImageIO.getImageReaders(stream) : null;
+            if (readers == null || !readers.hasNext()) {
+                logger.info("No image reader for {} - skipping variants", fileName);
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    logger.warn("{} is {}x{} - too large to decode, skipping variants",
+                            fileName, reader.getWidth(0), reader.getHeight(0));
+                    return null;
+                }
+                return reader.read(0, reader.getDefaultReadParam());
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.repository.MediaBlobRepository;
+import com.data.project_reactnative.storage.MediaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Removes media blobs that nothing references any more. A blob is only collected once it has been unreferenced
+ * for media.gc.grace-hours since its last upload, which leaves clients time to attach a fresh upload to a post or message.
+ * A collected blob is first marked (refCount -1), then its files are deleted, then its row.
+ */
+@Service
+public class MediaGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaGarbageCollector.class);
+
+    @Autowired
+    private MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Value("${media.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${media.gc.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(cron = "${media.gc.cron:0 45 4 * * *}")
+    public void collect() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(graceHours);
+        int deleted = 0;
+        long lastId = 0L;
+
+        while (true) {
+            List<Object[]> candidates = mediaBlobRepository.findCollectable(lastId, cutoff, PageRequest.of(0, batchSize));
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            for (Object[] row : candidates) {
+                lastId = (Long) row[0];
+                String sha256 = (String) row[1];
+                String fileName = (String) row[2];
+                String variantWidths = (String) row[3];
+                long refCount = (Long) row[4];
+
+                // Skipped if the blob was uploaded or referenced again since it was selected
+                if (refCount != -1 && mediaBlobRepository.markCollecting(sha256, cutoff) == 0) {
+                    continue;
+                }
+                // Files go first and the row last, so an upload of the same content never races the deletion
+                try {
+                    mediaStore.delete(fileName);
+                    if (variantWidths != null && !variantWidths.isEmpty()) {
+                        for (String width : variantWidths.split(",")) {
+                            mediaStore.delete(ImageVariantService.variantFileName(fileName, Integer.parseInt(width)));
+                        }
+                    }
+                    mediaBlobRepository.deleteCollected(sha256);
+                    deleted++;
+                } catch (IOException e) {
+                    // The blob stays marked and is retried on the next run
+                    logger.warn("Could not delete media file {}: {}", fileName, e.getMessage());
+                }
+            }
+
+            if (candidates.size() < batchSize) {
+                break;
+            }
+        }
+
+        logger.info("Media garbage collection removed {} unreferenced blobs", deleted);
+    }
+}
@@ -0,0 +1,445 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.MediaBlob;
+import com.data.project_reactnative.repository.MediaBlobRepository;
+import com.data.project_reactnative.storage.MediaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Content-addressed media storage shared by post and message uploads.
+ * Uploads are hashed while they stream and stored once under their SHA-256 digest (media_blobs).
+ * Small uploads are buffered in memory and larger ones spill into a temporary file through a FileChannel;
+ * uploads of content that is already stored return the existing file without writing it again.
+ * Size limits are enforced from the declared length before anything is read, and again while streaming.
+ * The bytes themselves live in the configured MediaStore; with an object store, clients can also upload
+ * directly to a pre-signed URL and only register the result here.
+ */
+@Service
+public class MediaStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaStorageService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String UPLOADS_PATH = "/uploads/";
+
+    @Autowired
+    private MediaBlobRepository mediaBlobRepository;
+
+    @Autowired
+    private MediaStore mediaStore;
+
+    @Value("${media.dedup.memory-threshold-bytes:1048576}")
+    private int memoryThreshold;
+
+    @Value("${media.max-image-bytes:10485760}")
+    private long maxImageBytes;
+
+    @Value("${media.max-video-bytes:104857600}")
+    private long maxVideoBytes;
+
+    /**
+     * Store a multipart upload. The container has already staged the part (on disk above
+     * spring.servlet.multipart.file-size-threshold); transferTo moves it into the store's staging file,
+     * so the bytes are only read again to hash them.
+     */
+    public StoredMedia store(MultipartFile file, boolean imagesOnly) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("File is empty");
+        }
+        long maxBytes = checkContentType(file.getContentType(), imagesOnly);
+        if (file.getSize() > maxBytes) {
+            throw new RuntimeException("File is too large (max " + maxBytes / (1024 * 1024) + " MB)");
+        }
+
+        Path tempFile = null;
+        try {
+            tempFile = mediaStore.createTempFile();
+            file.transferTo(tempFile.toFile());
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (FileChannel source = FileChannel.open(tempFile, StandardOpenOption.READ)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), buffer.position(), buffer.remaining());
+                    buffer.clear();
+                }
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            StoredMedia stored = storeContent(sha256, file.getSize(), tempFile, null, file.getContentType(),
+                    file.getOriginalFilename());
+            tempFile = null;
+            return stored;
+        } catch (IOException e) {
+            logger.error("Error storing uploaded file", e);
+            throw new RuntimeException("Could not store file. Please try again.");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    /**
+     * Store a raw request body. declaredLength is the Content-Length, or -1 when unknown.
+     */
+    public StoredMedia store(InputStream body, long declaredLength, String contentType, String originalFilename,
+                             boolean imagesOnly) {
+        long maxBytes = checkContentType(contentType, imagesOnly);
+        if (declaredLength > maxBytes) {
+            throw new RuntimeException("File is too large (max " + maxBytes / (1024 * 1024) + " MB)");
+        }
+
+        Path tempFile = null;
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            ByteArrayOutputStream memory = new ByteArrayOutputStream();
+            FileChannel spill = null;
+
+            try (ReadableByteChannel source = Channels.newChannel(body)) {
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new RuntimeException("File is too large (max " + maxBytes / (1024 * 1024) + " MB)");
+                    }
+                    digest.update(buffer.array(), buffer.position(), buffer.remaining());
+
+                    if (spill == null && size <= memoryThreshold) {
+                        memory.write(buffer.array(), buffer.position(), buffer.remaining());
+                    } else {
+                        if (spill == null) {
+                            tempFile = mediaStore.createTempFile();
+                            spill = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+                            writeFully(spill, ByteBuffer.wrap(memory.toByteArray()));
+                            memory = null;
+                        }
+                        writeFully(spill, buffer);
+                    }
+                    buffer.clear();
+                }
+            } finally {
+                if (spill != null) {
+                    spill.close();
+                }
+            }
+
+            if (size == 0) {
+                throw new RuntimeException("File is empty");
+            }
+
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            StoredMedia stored = storeContent(sha256, size, tempFile, memory != null ? memory.toByteArray() : null,
+                    contentType, originalFilename);
+            tempFile = null;
+            return stored;
+        } catch (IOException e) {
+            logger.error("Error storing file", e);
+            throw new RuntimeException("Could not store file. Please try again.");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    /**
+     * Pre-signed URL for uploading content with the given SHA-256 (hex) straight to the media store,
+     * or null when that content is already stored and nothing needs to be sent
+     */
+    public MediaStore.PresignedUpload prepareDirectUpload(String sha256, long size, String contentType,
+                                                          boolean imagesOnly) {
+        long maxBytes = checkContentType(contentType, imagesOnly);
+        if (size <= 0 || size > maxBytes) {
+            throw new RuntimeException("File size must be between 1 byte and " + maxBytes / (1024 * 1024) + " MB");
+        }
+        String digest = checkDigest(sha256);
+        if (mediaBlobRepository.findBySha256(digest).isPresent()) {
+            return null;
+        }
+        String checksum = Base64.getEncoder().encodeToString(HexFormat.of().parseHex(digest));
+        return mediaStore.presignUpload(digest + resolveExtension(null, contentType), contentType, size, checksum);
+    }
+
+    /**
+     * Register content a client has uploaded to a pre-signed URL. The store verified the digest on upload.
+     */
+    public StoredMedia completeDirectUpload(String sha256, String contentType, boolean imagesOnly) {
+        long maxBytes = checkContentType(contentType, imagesOnly);
+        String digest = checkDigest(sha256);
+        String fileName = digest + resolveExtension(null, contentType);
+        try {
+            Optional<StoredMedia> existing = reuseStored(digest, contentType);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+
+            long size = mediaStore.size(fileName);
+            if (size < 0) {
+                throw new RuntimeException("Upload not found - send the file to the upload URL first");
+            }
+            if (size > maxBytes) {
+                mediaStore.delete(fileName);
+                throw new RuntimeException("File is too large (max " + maxBytes / (1024 * 1024) + " MB)");
+            }
+
+            if (!claim(digest, fileName, size, contentType)) {
+                return reuseStored(digest, contentType).orElseThrow(MediaStorageService::retryLater);
+            }
+            logger.info("Registered direct upload {} ({} bytes)", fileName, size);
+            return new StoredMedia(fileName, digest, size, contentType);
+        } catch (IOException e) {
+            logger.error("Error checking direct upload {}", fileName, e);
+            throw new RuntimeException("Could not store file. Please try again.");
+        }
+    }
+
+    /**
+     * Record that a post, message or avatar now points at a media URL. URLs that are not stored blobs are ignored.
+     */
+    public void addReference(String url) {
+        String fileName = toFileName(url);
+        if (fileName != null) {
+            mediaBlobRepository.incrementRefCount(fileName);
+        }
+    }
+
+    /**
+     * Record that a post, message or avatar no longer points at a media URL
+     */
+    public void releaseReference(String url) {
+        String fileName = toFileName(url);
+        if (fileName != null) {
+            mediaBlobRepository.decrementRefCount(fileName);
+        }
+    }
+
+    /**
+     * File name of an uploaded media URL (absolute or relative), or null when the URL is not an upload
+     */
+    public String toFileName(String url) {
+        if (!StringUtils.hasText(url)) {
+            return null;
+        }
+        int index = url.lastIndexOf(UPLOADS_PATH);
+        if (index == -1) {
+            return null;
+        }
+        String fileName = url.substring(index + UPLOADS_PATH.length());
+        int query = fileName.indexOf('?');
+        return query != -1 ? fileName.substring(0, query) : fileName;
+    }
+
+    /**
+     * Store hashed content unless it is already stored. The blob row is inserted before the bytes are written:
+     * the unique sha256 key decides between concurrent uploads of the same content on any node, and no lock is
+     * held during the (possibly remote) write. The bytes are in tempFile (consumed when stored) or in memory.
+     */
+    private StoredMedia storeContent(String sha256, long size, Path tempFile, byte[] memory, String contentType,
+                                     String originalFilename) throws IOException {
+        Optional<StoredMedia> existing = reuseStored(sha256, contentType);
+        if (existing.isEmpty()) {
+            String fileName = sha256 + resolveExtension(originalFilename, contentType);
+            if (claim(sha256, fileName, size, contentType)) {
+                put(fileName, tempFile, memory, contentType);
+                logger.info("Stored {} ({} bytes)", fileName, size);
+                return new StoredMedia(fileName, sha256, size, contentType);
+            }
+            existing = reuseStored(sha256, contentType);
+            if (existing.isEmpty()) {
+                throw retryLater();
+            }
+        }
+
+        // The row of a concurrent upload exists before its file does, and stays if that upload failed to write:
+        // only then is this copy written
+        StoredMedia stored = existing.get();
+        if (!mediaStore.exists(stored.getFileName())) {
+            put(stored.getFileName(), tempFile, memory, contentType);
+        } else {
+            deleteTempFile(tempFile);
+            logger.info("Upload of {} bytes matches stored blob {}", size, stored.getFileName());
+        }
+        return stored;
+    }
+
+    /**
+     * The stored blob with this digest, with its grace period restarted; empty when there is none
+     * or it is being collected
+     */
+    private Optional<StoredMedia> reuseStored(String sha256, String contentType) {
+        if (mediaBlobRepository.touch(sha256, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        return mediaBlobRepository.findBySha256(sha256)
+                .map(blob -> new StoredMedia(blob.getFileName(), sha256, blob.getSize(), contentType));
+    }
+
+    /**
+     * Insert the blob row; false when a row with this digest already exists
+     */
+    private boolean claim(String sha256, String fileName, long size, String contentType) {
+        MediaBlob blob = new MediaBlob();
+        blob.setSha256(sha256);
+        blob.setFileName(fileName);
+        blob.setContentType(contentType);
+        blob.setSize(size);
+        blob.setRefCount(0);
+        blob.setLastUploadedAt(LocalDateTime.now());
+        try {
+            mediaBlobRepository.saveAndFlush(blob);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private void put(String fileName, Path tempFile, byte[] memory, String contentType) throws IOException {
+        if (tempFile == null) {
+            tempFile = mediaStore.createTempFile();
+            try (FileChannel target = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                writeFully(target, ByteBuffer.wrap(memory));
+            } catch (IOException e) {
+                deleteTempFile(tempFile);
+                throw e;
+            }
+        }
+        try {
+            mediaStore.put(fileName, tempFile, contentType);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        if (tempFile != null) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                logger.warn("Could not delete temporary upload {}", tempFile);
+            }
+        }
+    }
+
+    // The same content is being removed by the garbage collector at this moment
+    private static RuntimeException retryLater() {
+        return new RuntimeException("Could not store file. Please try again.");
+    }
+
+    private String checkDigest(String sha256) {
+        String digest = sha256 != null ? sha256.trim().toLowerCase() : "";
+        if (!digest.matches("[0-9a-f]{64}")) {
+            throw new RuntimeException("sha256 must be the hex SHA-256 of the file");
+        }
+        return digest;
+    }
+
+    private void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private long checkContentType(String contentType, boolean imagesOnly) {
+        String type = contentType != null ? contentType.toLowerCase() : "";
+        if (type.startsWith("image")) {
+            return maxImageBytes;
+        }
+        if (imagesOnly) {
+            throw new RuntimeException("Only image files are allowed");
+        }
+        if (type.startsWith("video")) {
+            return maxVideoBytes;
+        }
+        throw new RuntimeException("Only image and video files are allowed");
+    }
+
+    private String resolveExtension(String originalFilename, String contentType) {
+        if (StringUtils.hasText(originalFilename)) {
+            String cleanedName = StringUtils.cleanPath(originalFilename);
+            int extIndex = cleanedName.lastIndexOf('.');
+            if (extIndex != -1) {
+                String extension = cleanedName.substring(extIndex + 1);
+                if (extension.matches("[A-Za-z0-9]{1,10}")) {
+                    return "." + extension.toLowerCase();
+                }
+            }
+        }
+
+        String type = contentType != null ? contentType.toLowerCase() : "";
+        if (type.contains("png")) {
+            return ".png";
+        }
+        if (type.contains("gif")) {
+            return ".gif";
+        }
+        if (type.contains("webp")) {
+            return ".webp";
+        }
+        if (type.startsWith("video")) {
+            return type.contains("quicktime") ? ".mov" : ".mp4";
+        }
+        return ".jpg";
+    }
+
+    /**
+     * A stored upload: file name under the upload directory, content digest and size
+     */
+    public static class StoredMedia {
+        private final String fileName;
+        private final String sha256;
+        private final long size;
+        private final String contentType;
+
+        public StoredMedia(String fileName, String sha256, long size, String contentType) {
+            this.fileName = fileName;
+            this.sha256 = sha256;
+            this.size = size;
+            this.contentType = contentType;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+}
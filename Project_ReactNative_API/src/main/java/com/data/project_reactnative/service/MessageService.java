@@ -1,24 +1,28 @@
 package com.data.project_reactnative.service;
 
 import com.data.project_reactnative.dto.*;
+import com.data.project_reactnative.exception.InvalidCursorException;
 import com.data.project_reactnative.exception.UserNotFoundException;
 import com.data.project_reactnative.model.*;
 import com.data.project_reactnative.repository.*;
+import com.data.project_reactnative.storage.MediaStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +30,8 @@ public class MessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
 
+    private static final int MAX_MESSAGE_PAGE_SIZE = 100;
+
     @Autowired
     private MessageRepository messageRepository;
 
@@ -35,8 +41,20 @@ public class MessageService {
     @Autowired
     private MessageReactionRepository messageReactionRepository;
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private ConversationSummaryService conversationSummaryService;
+
+    @Autowired
+    private RealtimeEventPublisher realtimeEventPublisher;
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
 
     /**
      * Send a text message
@@ -45,11 +63,15 @@ public class MessageService {
     public MessageDTO sendMessage(Long senderId, SendMessageRequest request) {
         logger.info("Sending message from user {} to user {}", senderId, request.getReceiverId());
 
-        User sender = userRepository.findById(senderId)
-                .orElseThrow(() -> new UserNotFoundException("Sender not found"));
-
-        User receiver = userRepository.findById(request.getReceiverId())
-                .orElseThrow(() -> new UserNotFoundException("Receiver not found"));
+        // Existence is checked against the profile cache; the message only needs references
+        if (userProfileCache.get(senderId) == null) {
+            throw new UserNotFoundException("Sender not found");
+        }
+        if (userProfileCache.get(request.getReceiverId()) == null) {
+            throw new UserNotFoundException("Receiver not found");
+        }
+        User sender = userRepository.getReferenceById(senderId);
+        User receiver = userRepository.getReferenceById(request.getReceiverId());
 
         Message message = new Message();
         message.setSender(sender);
@@ -80,98 +102,140 @@ public class MessageService {
         Message savedMessage = messageRepository.save(message);
         logger.info("Message sent with ID: {}", savedMessage.getId());
 
-        return mapToMessageDTO(savedMessage);
+        mediaStorageService.addReference(savedMessage.getImageUrl());
+        mediaStorageService.addReference(savedMessage.getVideoUrl());
+        conversationSummaryService.recordMessage(savedMessage);
+        notificationCounterService.adjustUnreadMessages(receiver.getId(), 1);
+
+        // A new message has no reactions yet
+        MessageDTO dto = mapToMessageDTO(savedMessage);
+        dto.setReactions(new ArrayList<>());
+
+        realtimeEventPublisher.publishToUser(receiver.getId(), "MESSAGE_NEW", dto);
+        realtimeEventPublisher.publishToUser(sender.getId(), "MESSAGE_NEW", dto);
+        return dto;
     }
 
     /**
      * Upload image/video for message
      */
-    @Transactional
     public String uploadMessageMedia(MultipartFile file) {
-        try {
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
+        return toMediaUrl(mediaStorageService.store(file, false));
+    }
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String filename = UUID.randomUUID().toString() + extension;
-
-            // Save file
-            Path targetLocation = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            // Return URL
-            String fileUrl = "/uploads/" + filename;
-            logger.info("File uploaded: {}", fileUrl);
-            return fileUrl;
-        } catch (IOException e) {
-            logger.error("Error uploading file: ", e);
-            throw new RuntimeException("Failed to upload file: " + e.getMessage());
+    /**
+     * Upload image/video sent as the raw request body
+     */
+    public String uploadMessageMedia(InputStream body, long contentLength, String contentType, String filename) {
+        return toMediaUrl(mediaStorageService.store(body, contentLength, contentType, filename, false));
+    }
+
+    /**
+     * Pre-signed URL for uploading message media straight to the media store
+     */
+    public DirectUploadResponse prepareDirectMediaUpload(DirectUploadRequest request) {
+        MediaStore.PresignedUpload upload = mediaStorageService.prepareDirectUpload(request.getSha256(),
+                request.getSize(), request.getContentType(), false);
+        if (upload == null) {
+            DirectUploadResponse response = new DirectUploadResponse();
+            response.setAlreadyStored(true);
+            response.setMediaUrl(completeDirectMediaUpload(request));
+            return response;
         }
+        return new DirectUploadResponse(upload.getUrl(), upload.getMethod(), upload.getHeaders(), upload.getExpiresAt());
     }
 
     /**
-     * Get messages between two users
+     * Register message media uploaded to a pre-signed URL and return its URL
      */
-    public List<MessageDTO> getMessagesBetweenUsers(Long currentUserId, Long otherUserId) {
-        logger.info("Getting messages between user {} and user {}", currentUserId, otherUserId);
+    public String completeDirectMediaUpload(DirectUploadRequest request) {
+        return toMediaUrl(mediaStorageService.completeDirectUpload(request.getSha256(), request.getContentType(), false));
+    }
 
-        List<Message> messages = messageRepository.findMessagesBetweenUsers(currentUserId, otherUserId);
-        
-        // Mark messages as read
-        markMessagesAsRead(currentUserId, otherUserId);
+    private String toMediaUrl(MediaStorageService.StoredMedia media) {
+        String fileUrl = "/uploads/" + media.getFileName();
+        logger.info("File uploaded: {}", fileUrl);
+        return fileUrl;
+    }
 
-        return messages.stream()
+    /**
+     * Get a page of messages between two users, in chronological order.
+     * Without a cursor this is the newest page; with beforeMessageId it is the page just before that message.
+     */
+    @Transactional
+    public List<MessageDTO> getMessagesBetweenUsers(Long currentUserId, Long otherUserId, Long beforeMessageId,
+                                                    int limit, boolean compactReactions) {
+        logger.info("Getting messages between user {} and user {} (before: {}, limit: {})",
+                currentUserId, otherUserId, beforeMessageId, limit);
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_MESSAGE_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, pageSize);
+
+        // Each direction is its own index range scan; the two newest-first slices are merged below
+        List<Message> messages = new ArrayList<>(pageSize * 2);
+        if (beforeMessageId == null) {
+            messages.addAll(messageRepository.findLatestFromSender(currentUserId, otherUserId, pageable));
+            messages.addAll(messageRepository.findLatestFromSender(otherUserId, currentUserId, pageable));
+        } else {
+            LocalDateTime cursorCreatedAt = messageRepository
+                    .findCreatedAtInConversation(beforeMessageId, currentUserId, otherUserId)
+                    .orElseThrow(() -> new InvalidCursorException("Message " + beforeMessageId
+                            + " is not in this conversation"));
+            messages.addAll(messageRepository.findFromSenderBefore(currentUserId, otherUserId,
+                    cursorCreatedAt, beforeMessageId, pageable));
+            messages.addAll(messageRepository.findFromSenderBefore(otherUserId, currentUserId,
+                    cursorCreatedAt, beforeMessageId, pageable));
+        }
+
+        List<MessageDTO> page = messages.stream()
+                .sorted(Comparator.comparing(Message::getCreatedAt).thenComparing(Message::getId).reversed())
+                .limit(pageSize)
+                .sorted(Comparator.comparing(Message::getCreatedAt).thenComparing(Message::getId))
                 .map(this::mapToMessageDTO)
                 .collect(Collectors.toList());
+
+        if (compactReactions) {
+            attachReactionSummaries(page, currentUserId);
+        } else {
+            attachReactions(page);
+        }
+
+        // Opening the newest page of a chat marks everything up to its last message as read
+        if (beforeMessageId == null && !page.isEmpty()) {
+            Long watermark = page.get(page.size() - 1).getId();
+            markMessagesAsRead(currentUserId, otherUserId, watermark);
+            page.stream()
+                    .filter(dto -> dto.getReceiver().getId().equals(currentUserId))
+                    .forEach(dto -> dto.setRead(true));
+        }
+
+        return page;
     }
 
     /**
      * Get all conversations for a user (list of users they've messaged with)
      */
+    @Transactional(readOnly = true)
     public List<ConversationDTO> getConversations(Long userId) {
         logger.info("Getting conversations for user {}", userId);
 
-        // Get all messages where user is sender or receiver, ordered by most recent
-        List<Message> allMessages = messageRepository.findAll()
-                .stream()
-                .filter(m -> m.getSender().getId().equals(userId) || m.getReceiver().getId().equals(userId))
-                .sorted((m1, m2) -> m2.getCreatedAt().compareTo(m1.getCreatedAt()))
-                .collect(Collectors.toList());
+        List<ConversationSummary> inbox = conversationSummaryService.getInbox(userId);
+        Map<Long, UserProfileCache.UserProfile> partners = userProfileCache.getAll(inbox.stream()
+                .map(summary -> summary.getPartner().getId())
+                .collect(Collectors.toSet()));
 
-        // Group by other user and get the most recent message
-        return allMessages.stream()
-                .collect(Collectors.toMap(
-                        m -> m.getSender().getId().equals(userId) ? m.getReceiver().getId() : m.getSender().getId(),
-                        m -> m,
-                        (m1, m2) -> m1.getCreatedAt().isAfter(m2.getCreatedAt()) ? m1 : m2
-                ))
-                .values()
-                .stream()
-                .map(m -> {
-                    User otherUser = m.getSender().getId().equals(userId) ? m.getReceiver() : m.getSender();
-                    // Count unread messages from this user
-                    long unreadCount = messageRepository.findMessagesBetweenUsers(userId, otherUser.getId())
-                            .stream()
-                            .filter(msg -> msg.getReceiver().getId().equals(userId) && !msg.isRead())
-                            .count();
+        return inbox.stream()
+                .map(summary -> {
+                    UserProfileCache.UserProfile partner = partners.get(summary.getPartner().getId());
                     return new ConversationDTO(
-                            otherUser.getId(),
-                            otherUser.getUsername(),
-                            otherUser.getAvatarUrl(),
-                            m.getContent() != null ? m.getContent() : (m.getImageUrl() != null ? "📷 Image" : "🎥 Video"),
-                            m.getCreatedAt(),
-                            unreadCount > 0
+                            summary.getPartner().getId(),
+                            partner != null ? partner.getUsername() : summary.getPartner().getUsername(),
+                            partner != null ? partner.getAvatarUrl() : summary.getPartner().getAvatarUrl(),
+                            summary.getLastMessagePreview(),
+                            summary.getLastMessageAt(),
+                            summary.getUnreadCount()
                     );
                 })
-                .sorted((c1, c2) -> c2.getLastMessageTime().compareTo(c1.getLastMessageTime()))
                 .collect(Collectors.toList());
     }
 
@@ -204,6 +268,7 @@ public class MessageService {
             // Remove reaction (toggle off)
             messageReactionRepository.delete(existingReaction);
             logger.info("Reaction removed");
+            publishReactionEvent(message, userId, null);
             return null; // Return null to indicate reaction was removed
         } else {
             // Remove any existing reaction of different type from this user
@@ -220,27 +285,27 @@ public class MessageService {
             MessageReaction savedReaction = messageReactionRepository.save(reaction);
             logger.info("Reaction added with ID: {}", savedReaction.getId());
 
-            return mapToMessageReactionDTO(savedReaction);
+            MessageReactionDTO reactionDTO = mapToMessageReactionDTO(savedReaction);
+            publishReactionEvent(message, userId, reactionDTO);
+            return reactionDTO;
         }
     }
 
     /**
-     * Mark messages as read
+     * Mark messages from a sender as read with a single set-based update.
+     * Everything up to upToMessageId is marked; without a watermark the conversation's latest message is used.
      */
     @Transactional
-    public void markMessagesAsRead(Long userId, Long senderId) {
-        logger.info("Marking messages as read for user {} from sender {}", userId, senderId);
-        
-        List<Message> unreadMessages = messageRepository.findMessagesBetweenUsers(userId, senderId)
-                .stream()
-                .filter(m -> m.getReceiver().getId().equals(userId) && 
-                            m.getSender().getId().equals(senderId) && 
-                            !m.isRead())
-                .collect(Collectors.toList());
-
-        for (Message message : unreadMessages) {
-            message.setRead(true);
-            messageRepository.save(message);
+    public void markMessagesAsRead(Long userId, Long senderId, Long upToMessageId) {
+        Long watermark = upToMessageId != null
+                ? upToMessageId
+                : conversationSummaryService.findLastMessageId(userId, senderId).orElse(Long.MAX_VALUE);
+        logger.info("Marking messages as read for user {} from sender {} up to message {}", userId, senderId, watermark);
+
+        int readCount = messageRepository.markMessagesAsRead(userId, senderId, watermark);
+        conversationSummaryService.markRead(userId, senderId, watermark, readCount);
+        if (readCount > 0) {
+            notificationCounterService.adjustUnreadMessages(userId, -readCount);
         }
     }
 
@@ -253,7 +318,7 @@ public class MessageService {
     }
 
     /**
-     * Map Message entity to MessageDTO
+     * Map Message entity to MessageDTO (reactions are attached separately, per page)
      */
     private MessageDTO mapToMessageDTO(Message message) {
         MessageDTO dto = new MessageDTO();
@@ -266,24 +331,79 @@ public class MessageService {
         dto.setType(message.getType().name());
         dto.setRead(message.isRead());
         dto.setCreatedAt(message.getCreatedAt());
+        return dto;
+    }
 
-        // Get reactions
-        List<MessageReaction> reactions = messageReactionRepository.findByMessageId(message.getId());
-        dto.setReactions(reactions.stream()
-                .map(this::mapToMessageReactionDTO)
-                .collect(Collectors.toList()));
+    /**
+     * Load the reactions of a page of messages with a single IN query
+     */
+    private void attachReactions(List<MessageDTO> page) {
+        if (page.isEmpty()) {
+            return;
+        }
 
-        return dto;
+        List<Long> messageIds = page.stream().map(MessageDTO::getId).collect(Collectors.toList());
+        Map<Long, List<MessageReactionDTO>> reactionsByMessage = messageReactionRepository.findByMessageIdIn(messageIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        reaction -> reaction.getMessage().getId(),
+                        Collectors.mapping(this::mapToMessageReactionDTO, Collectors.toList())
+                ));
+
+        for (MessageDTO dto : page) {
+            dto.setReactions(reactionsByMessage.getOrDefault(dto.getId(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Compact mode: per-type reaction counts and the viewer's own reaction, two grouped queries per page
+     */
+    private void attachReactionSummaries(List<MessageDTO> page, Long viewerId) {
+        if (page.isEmpty()) {
+            return;
+        }
+
+        List<Long> messageIds = page.stream().map(MessageDTO::getId).collect(Collectors.toList());
+
+        Map<Long, Map<String, Long>> countsByMessage = new HashMap<>();
+        for (Object[] row : messageReactionRepository.countByMessageIdsAndType(messageIds)) {
+            countsByMessage.computeIfAbsent((Long) row[0], id -> new LinkedHashMap<>())
+                    .put(((ReactionType) row[1]).name(), (Long) row[2]);
+        }
+
+        Map<Long, String> viewerReactions = new HashMap<>();
+        for (Object[] row : messageReactionRepository.findUserReactions(viewerId, messageIds)) {
+            viewerReactions.put((Long) row[0], ((ReactionType) row[1]).name());
+        }
+
+        for (MessageDTO dto : page) {
+            dto.setReactionCounts(countsByMessage.getOrDefault(dto.getId(), new LinkedHashMap<>()));
+            dto.setMyReaction(viewerReactions.get(dto.getId()));
+        }
+    }
+
+    /**
+     * Notify both participants of a reaction change; reaction is null when it was removed
+     */
+    private void publishReactionEvent(Message message, Long userId, MessageReactionDTO reaction) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("messageId", message.getId());
+        payload.put("userId", userId);
+        payload.put("reaction", reaction);
+
+        realtimeEventPublisher.publishToUser(message.getSender().getId(), "MESSAGE_REACTION", payload);
+        realtimeEventPublisher.publishToUser(message.getReceiver().getId(), "MESSAGE_REACTION", payload);
     }
 
     /**
-     * Map User entity to UserBasicDTO
+     * Map User entity to UserBasicDTO, reading the profile fields from the profile cache
      */
     private UserBasicDTO mapToUserBasicDTO(User user) {
+        UserProfileCache.UserProfile profile = userProfileCache.get(user.getId());
         UserBasicDTO dto = new UserBasicDTO();
         dto.setId(user.getId());
-        dto.setUsername(user.getUsername());
-        dto.setAvatarUrl(user.getAvatarUrl());
+        dto.setUsername(profile != null ? profile.getUsername() : user.getUsername());
+        dto.setAvatarUrl(profile != null ? profile.getAvatarUrl() : user.getAvatarUrl());
         return dto;
     }
 
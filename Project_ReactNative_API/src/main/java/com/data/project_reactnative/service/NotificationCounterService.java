@@ -0,0 +1,185 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.dto.NotificationCountDTO;
+import com.data.project_reactnative.repository.FriendRequestRepository;
+import com.data.project_reactnative.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory notification counters (pending friend requests, unread messages) per user.
+ * Counters are loaded with the two COUNT queries on first use and then kept up to date by the
+ * friend-request and message write paths. A periodic reconciliation reloads active users and drops idle ones;
+ * a dropped user with an open stream is reloaded when their counts next change.
+ */
+@Service
+public class NotificationCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCounterService.class);
+
+    @Autowired
+    private FriendRequestRepository friendRequestRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Value("${notifications.counters.idle-eviction-ms:600000}")
+    private long idleEvictionMs;
+
+    private final Map<Long, UserCounters> counters = new ConcurrentHashMap<>();
+
+    // Users whose counts changed since the last push to their streams
+    private final Set<Long> dirtyUsers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Get the current counts of a user (memory read once loaded)
+     */
+    public NotificationCountDTO getCounts(Long userId) {
+        UserCounters userCounters = counters.computeIfAbsent(userId, this::load);
+        userCounters.lastAccess = System.currentTimeMillis();
+        return userCounters.toDTO();
+    }
+
+    public void adjustFriendRequests(Long userId, long delta) {
+        afterCommit(() -> {
+            UserCounters userCounters = counters.get(userId);
+            if (userCounters != null) {
+                userCounters.adjust(delta, 0);
+            }
+            // Also when not loaded (e.g. evicted while a stream is open): the next push reloads the counts
+            dirtyUsers.add(userId);
+        });
+    }
+
+    public void adjustUnreadMessages(Long userId, long delta) {
+        afterCommit(() -> {
+            UserCounters userCounters = counters.get(userId);
+            if (userCounters != null) {
+                userCounters.adjust(0, delta);
+            }
+            dirtyUsers.add(userId);
+        });
+    }
+
+    /**
+     * Drop a user's counters so they are reloaded from the database on next use
+     */
+    public void invalidate(Long userId) {
+        afterCommit(() -> {
+            counters.remove(userId);
+            dirtyUsers.add(userId);
+        });
+    }
+
+    /**
+     * Take the set of users whose counts changed since the last call
+     */
+    public List<Long> drainDirtyUsers() {
+        List<Long> drained = new ArrayList<>();
+        for (Long userId : dirtyUsers) {
+            if (dirtyUsers.remove(userId)) {
+                drained.add(userId);
+            }
+        }
+        return drained;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+
+        for (Map.Entry<Long, UserCounters> entry : counters.entrySet()) {
+            Long userId = entry.getKey();
+            UserCounters cached = entry.getValue();
+
+            if (now - cached.lastAccess > idleEvictionMs) {
+                counters.remove(userId, cached);
+                evicted++;
+                continue;
+            }
+
+            // Corrections are only applied when no adjustment happened while the counts were read;
+            // otherwise the entry is left for the next run
+            long version = cached.version();
+            long friendRequests = friendRequestRepository.countPendingRequestsByReceiverId(userId);
+            long unreadMessages = messageRepository.countUnreadMessagesForUser(userId);
+            if (cached.reconcile(version, friendRequests, unreadMessages)) {
+                dirtyUsers.add(userId);
+            }
+        }
+
+        if (evicted > 0) {
+            logger.info("Evicted notification counters of {} idle users", evicted);
+        }
+    }
+
+    private UserCounters load(Long userId) {
+        UserCounters userCounters = new UserCounters();
+        userCounters.friendRequests = friendRequestRepository.countPendingRequestsByReceiverId(userId);
+        userCounters.unreadMessages = messageRepository.countUnreadMessagesForUser(userId);
+        userCounters.lastAccess = System.currentTimeMillis();
+        return userCounters;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class UserCounters {
+        private long friendRequests;
+        private long unreadMessages;
+        // Bumped by every adjustment
+        private long version;
+        private volatile long lastAccess;
+
+        synchronized void adjust(long friendRequestsDelta, long unreadMessagesDelta) {
+            friendRequests = Math.max(0, friendRequests + friendRequestsDelta);
+            unreadMessages = Math.max(0, unreadMessages + unreadMessagesDelta);
+            version++;
+        }
+
+        synchronized long version() {
+            return version;
+        }
+
+        /**
+         * Replace the counts with values read from the database, unless an adjustment happened since
+         * expectedVersion. Returns true when the counts changed.
+         */
+        synchronized boolean reconcile(long expectedVersion, long actualFriendRequests, long actualUnreadMessages) {
+            if (version != expectedVersion
+                    || (friendRequests == actualFriendRequests && unreadMessages == actualUnreadMessages)) {
+                return false;
+            }
+            friendRequests = actualFriendRequests;
+            unreadMessages = actualUnreadMessages;
+            return true;
+        }
+
+        synchronized NotificationCountDTO toDTO() {
+            return new NotificationCountDTO(friendRequests, unreadMessages);
+        }
+    }
+}
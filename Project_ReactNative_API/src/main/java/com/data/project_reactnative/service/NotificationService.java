@@ -3,23 +3,28 @@ package com.data.project_reactnative.service;
 import com.data.project_reactnative.dto.NotificationCountDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class NotificationService {
 
     @Autowired
-    private FriendService friendService;
+    private NotificationCounterService notificationCounterService;
 
     @Autowired
-    private MessageService messageService;
+    private NotificationStreamService notificationStreamService;
 
     /**
      * Get notification counts for a user
      */
     public NotificationCountDTO getNotificationCounts(Long userId) {
-        long friendRequestCount = friendService.countPendingFriendRequests(userId);
-        long unreadMessageCount = messageService.countUnreadMessages(userId);
-        return new NotificationCountDTO(friendRequestCount, unreadMessageCount);
+        return notificationCounterService.getCounts(userId);
     }
-}
 
+    /**
+     * Open a Server-Sent Events stream of notification counts for a user
+     */
+    public SseEmitter streamNotificationCounts(Long userId) {
+        return notificationStreamService.subscribe(userId);
+    }
+}
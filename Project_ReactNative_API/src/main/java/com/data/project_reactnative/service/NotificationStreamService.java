@@ -0,0 +1,82 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.dto.NotificationCountDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-Sent Events streams of notification counts.
+ * Changes are coalesced: at most one update per user is pushed every notifications.sse.coalesce-ms.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    private static final String COUNTS_EVENT = "counts";
+
+    @Autowired
+    private NotificationCounterService notificationCounterService;
+
+    @Value("${notifications.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    /**
+     * Open a stream for a user; the current counts are sent immediately
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(error -> remove(userId, emitter));
+
+        send(userId, emitter, notificationCounterService.getCounts(userId));
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.sse.coalesce-ms:1000}")
+    public void flush() {
+        for (Long userId : notificationCounterService.drainDirtyUsers()) {
+            List<SseEmitter> userEmitters = emitters.get(userId);
+            if (userEmitters == null || userEmitters.isEmpty()) {
+                continue;
+            }
+
+            NotificationCountDTO counts = notificationCounterService.getCounts(userId);
+            for (SseEmitter emitter : userEmitters) {
+                send(userId, emitter, counts);
+            }
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, NotificationCountDTO counts) {
+        try {
+            emitter.send(SseEmitter.event().name(COUNTS_EVENT).data(counts));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, list) -> {
+            list.remove(emitter);
+            return list.isEmpty() ? null : list;
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.exception.AuthOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bcrypt on a small bounded pool so a login storm cannot take every core from the rest of the API.
+ * When the queue is full, or a hash waits longer than auth.hashing.timeout-ms, the call fails with
+ * AuthOverloadedException (503 + Retry-After) instead of queueing more work.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${auth.hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.hashing.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${auth.hashing.retry-after-seconds:5}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        // Default: half of the cores, so request threads always keep CPU for other endpoints
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Authentication requests shed because the hashing pool was saturated")
+                .register(meterRegistry);
+
+        logger.info("Password hashing pool: {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether a stored hash was made with a weaker cost than the one currently configured
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.warn("Password hashing queue full ({} waiting) - shedding authentication request",
+                    executor.getQueue().size());
+            throw new AuthOverloadedException("Authentication is temporarily overloaded, please retry", retryAfterSeconds);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new AuthOverloadedException("Authentication is temporarily overloaded, please retry", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException("Password hashing failed", cause);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.repository.CommentRepository;
+import com.data.project_reactnative.repository.LikeRepository;
+import com.data.project_reactnative.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Repairs drift between the denormalized like/comment counters on Post and the real number of
+ * post_like / comment rows. Posts that received likes or comments are checked every
+ * post.counters.reconcile-interval-ms; every post is checked once a day (post.counters.full-sweep-cron).
+ * Corrections are compare-and-set against the snapshot they were computed from.
+ */
+@Service
+public class PostCounterReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterReconciler.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Value("${post.counters.reconcile-batch-size:500}")
+    private int batchSize;
+
+    // Posts whose counters changed since the last run
+    private final Set<Long> activePosts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Queue a post for the next reconciliation run (called when its counters change)
+     */
+    public void markActive(Long postId) {
+        activePosts.add(postId);
+    }
+
+    @Scheduled(fixedDelayString = "${post.counters.reconcile-interval-ms:300000}",
+            initialDelayString = "${post.counters.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        List<Long> postIds = new ArrayList<>();
+        for (Long postId : activePosts) {
+            if (activePosts.remove(postId)) {
+                postIds.add(postId);
+            }
+        }
+
+        int fixed = 0;
+        for (int from = 0; from < postIds.size(); from += batchSize) {
+            List<Long> batch = postIds.subList(from, Math.min(from + batchSize, postIds.size()));
+            fixed += reconcileBatch(postRepository.findCounterSnapshotByIds(batch));
+        }
+
+        if (fixed > 0) {
+            logger.info("Post counter reconciliation fixed {} of {} active posts", fixed, postIds.size());
+        }
+    }
+
+    @Scheduled(cron = "${post.counters.full-sweep-cron:0 15 4 * * *}")
+    public void reconcileAll() {
+        long lastId = 0L;
+        int fixed = 0;
+
+        while (true) {
+            List<Object[]> snapshot = postRepository.findCounterSnapshot(lastId, PageRequest.of(0, batchSize));
+            if (snapshot.isEmpty()) {
+                break;
+            }
+            fixed += reconcileBatch(snapshot);
+            lastId = (Long) snapshot.get(snapshot.size() - 1)[0];
+        }
+
+        logger.info("Post counter full sweep fixed {} posts", fixed);
+    }
+
+    /**
+     * Compare a [id, likeCount, commentCount] snapshot with the real counts and correct the posts that drifted.
+     * The snapshot must be read before the counts: an increment committed after the snapshot then changes the
+     * counters, the compare-and-set misses, and the post is left for the next run.
+     */
+    private int reconcileBatch(List<Object[]> snapshot) {
+        if (snapshot.isEmpty()) {
+            return 0;
+        }
+        List<Long> postIds = snapshot.stream()
+                .map(row -> (Long) row[0])
+                .collect(Collectors.toList());
+        Map<Long, Long> likeCounts = toCountMap(likeRepository.countByPostIds(postIds));
+        Map<Long, Long> commentCounts = toCountMap(commentRepository.countByPostIds(postIds));
+
+        int fixed = 0;
+        for (Object[] row : snapshot) {
+            Long postId = (Long) row[0];
+            long storedLikes = (Long) row[1];
+            long storedComments = (Long) row[2];
+            long actualLikes = likeCounts.getOrDefault(postId, 0L);
+            long actualComments = commentCounts.getOrDefault(postId, 0L);
+
+            if (storedLikes != actualLikes || storedComments != actualComments) {
+                if (postRepository.updateCountersIfUnchanged(postId, storedLikes, storedComments,
+                        actualLikes, actualComments) > 0) {
+                    fixed++;
+                } else {
+                    // Changed concurrently: check again on the next run
+                    markActive(postId);
+                }
+            }
+        }
+        return fixed;
+    }
+
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+}
@@ -5,24 +5,26 @@ import com.data.project_reactnative.exception.PostNotFoundException;
 import com.data.project_reactnative.exception.UserNotFoundException;
 import com.data.project_reactnative.model.*;
 import com.data.project_reactnative.repository.*;
+import com.data.project_reactnative.storage.MediaStore;
+import com.data.project_reactnative.util.FeedCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,6 +32,8 @@ public class PostService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
 
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
     @Autowired
     private PostRepository postRepository;
 
@@ -43,20 +47,31 @@ public class PostService {
     private CommentRepository commentRepository;
 
     @Autowired
-    private FriendRequestRepository friendRequestRepository;
+    private FriendGraphCache friendGraphCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PostCounterReconciler postCounterReconciler;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    @Autowired
+    private UserProfileCache userProfileCache;
 
     /**
      * Create a new post
      */
     @Transactional
-    public PostResponse createPost(String email, CreatePostRequest request) {
-        logger.info("Creating post for user: {}", email);
+    public PostResponse createPost(Long userId, CreatePostRequest request) {
+        logger.info("Creating post for user: {}", userId);
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        User user = getExistingUserReference(userId);
 
         Post post = new Post();
         post.setUser(user);
@@ -76,156 +91,181 @@ public class PostService {
 
         Post savedPost = postRepository.save(post);
         logger.info("Post created with ID: {}", savedPost.getId());
+        mediaStorageService.addReference(savedPost.getImageUrl());
+
+        timelineService.fanOut(savedPost);
 
-        return mapToPostResponse(savedPost, user);
+        return mapToPostResponse(savedPost, userId);
     }
 
     /**
-     * Get posts from friends (newsfeed)
+     * Get posts from friends (newsfeed), one keyset page at a time.
+     * The cursor is the opaque token returned as nextCursor by the previous page, or null for the first page.
      */
-    public List<PostResponse> getFeedPosts(String email) {
-        logger.info("Getting feed posts for user: {}", email);
-
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
-        logger.info("Found user: {} (ID: {})", currentUser.getUsername(), currentUser.getId());
+    @Transactional(readOnly = true)
+    public FeedPageResponse getFeedPosts(Long userId, String cursor, int limit) {
+        logger.info("Getting feed posts for user: {} (cursor: {}, limit: {})", userId, cursor, limit);
 
         // Get list of friend IDs
-        List<Long> friendIds = getFriendIds(currentUser.getId());
-        logger.info("Friend IDs: {}", friendIds);
+        List<Long> friendIds = friendGraphCache.getFriendIdList(userId);
 
         if (friendIds.isEmpty()) {
-            logger.info("User {} has no friends - returning empty feed", currentUser.getId());
-            return List.of();
+            logger.info("User {} has no friends - returning empty feed", userId);
+            return new FeedPageResponse(List.of(), null, false);
         }
 
-        // Get posts from friends only
-        List<Post> posts = postRepository.findByUserIdInOrderByCreatedAtDesc(friendIds);
-        logger.info("Found {} total posts from friends", posts.size());
+        // Fetch one extra row to know whether another page exists.
+        // PRIVATE posts are excluded in the query; PUBLIC and FRIENDS posts of friends are always visible.
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        FeedCursor feedCursor = StringUtils.hasText(cursor) ? FeedCursor.decode(cursor) : null;
+
+        List<Post> posts = null;
+        if (timelineService.isEnabled()) {
+            // Precomputed timeline; null means it cannot fill this page and we read from friends' posts instead
+            List<Long> postIds = timelineService.getFeedPostIds(userId, friendIds,
+                    feedCursor != null ? feedCursor.getCreatedAt() : null,
+                    feedCursor != null ? feedCursor.getId() : null,
+                    pageSize + 1);
+            if (postIds != null) {
+                // Timeline entries may point to posts that were deleted or made private after they were fanned out.
+                // Such a page is short, so it is read from friends' posts instead.
+                List<Post> timelinePosts = findPostsInOrder(postIds).stream()
+                        .filter(post -> post.getPrivacy() != Post.Privacy.PRIVATE)
+                        .collect(Collectors.toList());
+                if (timelinePosts.size() == postIds.size()) {
+                    posts = timelinePosts;
+                }
+            }
+        }
 
-        // Filter posts based on privacy
-        List<Post> visiblePosts = posts.stream()
-                .filter(post -> canViewPost(post, currentUser))
-                .collect(Collectors.toList());
-        logger.info("After privacy filter: {} visible posts", visiblePosts.size());
+        if (posts == null) {
+            Pageable pageable = PageRequest.of(0, pageSize + 1);
+            if (feedCursor != null) {
+                posts = postRepository.findFeedPageBefore(friendIds, feedCursor.getCreatedAt(), feedCursor.getId(), pageable);
+            } else {
+                posts = postRepository.findFeedFirstPage(friendIds, pageable);
+            }
+        }
 
-        List<PostResponse> responses = visiblePosts.stream()
-                .map(post -> mapToPostResponse(post, currentUser))
-                .collect(Collectors.toList());
+        boolean hasMore = posts.size() > pageSize;
+        String nextCursor = null;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+            Post last = posts.get(posts.size() - 1);
+            nextCursor = FeedCursor.encode(last.getCreatedAt(), last.getId());
+        }
+
+        List<PostResponse> responses = mapToPostResponses(posts, userId);
 
-        logger.info("Returning {} feed post responses", responses.size());
-        return responses;
+        logger.info("Returning {} feed post responses (hasMore: {})", responses.size(), hasMore);
+        return new FeedPageResponse(responses, nextCursor, hasMore);
     }
 
     /**
      * Get posts for a specific user profile
      */
-    public List<PostResponse> getUserPosts(Long targetUserId, String viewerEmail) {
-        logger.info("Getting posts for user {} requested by {}", targetUserId, viewerEmail);
+    @Transactional(readOnly = true)
+    public List<PostResponse> getUserPosts(Long targetUserId, Long viewerId) {
+        return listUserPosts(targetUserId, viewerId);
+    }
+
+    /**
+     * Get posts for the current authenticated user.
+     * A read-write transaction, so it runs on the primary and a post the user just created is always listed.
+     */
+    @Transactional
+    public List<PostResponse> getOwnPosts(Long userId) {
+        return listUserPosts(userId, userId);
+    }
 
-        User viewer = userRepository.findByEmail(viewerEmail)
-                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + viewerEmail));
+    private List<PostResponse> listUserPosts(Long targetUserId, Long viewerId) {
+        logger.info("Getting posts for user {} requested by {}", targetUserId, viewerId);
 
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + targetUserId));
+        if (userProfileCache.get(targetUserId) == null) {
+            throw new UserNotFoundException("User not found with id: " + targetUserId);
+        }
+        User targetUser = userRepository.getReferenceById(targetUserId);
 
         List<Post> posts = postRepository.findByUserOrderByCreatedAtDesc(targetUser);
         logger.info("Found {} posts for user {}", posts.size(), targetUserId);
 
         List<Post> visiblePosts = posts.stream()
-                .filter(post -> canViewPost(post, viewer))
+                .filter(post -> canViewPost(post, viewerId))
                 .collect(Collectors.toList());
 
-        logger.info("{} posts visible to viewer {}", visiblePosts.size(), viewer.getId());
+        logger.info("{} posts visible to viewer {}", visiblePosts.size(), viewerId);
 
-        return visiblePosts.stream()
-                .map(post -> mapToPostResponse(post, viewer))
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Get posts for the current authenticated user
-     */
-    public List<PostResponse> getOwnPosts(String email) {
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + email));
-
-        return getUserPosts(currentUser.getId(), email);
+        return mapToPostResponses(visiblePosts, viewerId);
     }
 
     /**
      * Get post details by ID with privacy checks
      */
-    public PostResponse getPostById(Long postId, String viewerEmail) {
-        logger.info("Getting post {} requested by {}", postId, viewerEmail);
-
-        User viewer = userRepository.findByEmail(viewerEmail)
-                .orElseThrow(() -> new UserNotFoundException("User not found with email: " + viewerEmail));
+    @Transactional(readOnly = true)
+    public PostResponse getPostById(Long postId, Long viewerId) {
+        logger.info("Getting post {} requested by {}", postId, viewerId);
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + postId));
 
-        if (!canViewPost(post, viewer)) {
-            logger.warn("User {} does not have access to post {}", viewer.getId(), postId);
+        if (!canViewPost(post, viewerId)) {
+            logger.warn("User {} does not have access to post {}", viewerId, postId);
             throw new RuntimeException("You don't have permission to view this post");
         }
 
-        return mapToPostResponse(post, viewer);
+        return mapToPostResponse(post, viewerId);
     }
 
     public String uploadPostImage(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new RuntimeException("File is empty");
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.toLowerCase().startsWith("image")) {
-            throw new RuntimeException("Only image files are allowed");
-        }
+        MediaStorageService.StoredMedia media = mediaStorageService.store(file, true);
+        imageVariantService.schedule(media);
+        return toPublicUrl(media);
+    }
 
-        try {
-            Path uploadPath = Paths.get(uploadDir).toAbsolutePath().normalize();
-            Files.createDirectories(uploadPath);
-
-            String originalFilename = file.getOriginalFilename();
-            String cleanedName = StringUtils.hasText(originalFilename) ? StringUtils.cleanPath(originalFilename) : "image";
-            String extension = "";
-            int extIndex = cleanedName.lastIndexOf('.');
-            if (extIndex != -1) {
-                extension = cleanedName.substring(extIndex);
-            } else if (contentType.contains("png")) {
-                extension = ".png";
-            } else {
-                extension = ".jpg";
-            }
+    /**
+     * Upload a post image sent as the raw request body
+     */
+    public String uploadPostImage(InputStream body, long contentLength, String contentType, String filename) {
+        MediaStorageService.StoredMedia media = mediaStorageService.store(body, contentLength, contentType, filename, true);
+        imageVariantService.schedule(media);
+        return toPublicUrl(media);
+    }
 
-            String fileName = UUID.randomUUID() + extension;
-            Path targetLocation = uploadPath.resolve(fileName);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-            return ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/uploads/")
-                    .path(fileName)
-                    .toUriString();
-        } catch (IOException e) {
-            logger.error("Error storing file", e);
-            throw new RuntimeException("Could not store file. Please try again.");
+    /**
+     * Pre-signed URL for uploading a post image straight to the media store
+     */
+    public DirectUploadResponse prepareDirectImageUpload(DirectUploadRequest request) {
+        MediaStore.PresignedUpload upload = mediaStorageService.prepareDirectUpload(request.getSha256(),
+                request.getSize(), request.getContentType(), true);
+        if (upload == null) {
+            DirectUploadResponse response = new DirectUploadResponse();
+            response.setAlreadyStored(true);
+            response.setMediaUrl(completeDirectImageUpload(request));
+            return response;
         }
+        return new DirectUploadResponse(upload.getUrl(), upload.getMethod(), upload.getHeaders(), upload.getExpiresAt());
+    }
+
+    /**
+     * Register a post image uploaded to a pre-signed URL and return its URL
+     */
+    public String completeDirectImageUpload(DirectUploadRequest request) {
+        MediaStorageService.StoredMedia media = mediaStorageService.completeDirectUpload(request.getSha256(),
+                request.getContentType(), true);
+        imageVariantService.schedule(media);
+        return toPublicUrl(media);
     }
 
     /**
      * Update post privacy
      */
     @Transactional
-    public PostResponse updatePostPrivacy(String email, Long postId, UpdatePostPrivacyRequest request) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
+    public PostResponse updatePostPrivacy(Long userId, Long postId, UpdatePostPrivacyRequest request) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new PostNotFoundException("Post not found"));
 
         // Check if user owns the post
-        if (!post.getUser().getId().equals(user.getId())) {
+        if (!post.getUser().getId().equals(userId)) {
             throw new RuntimeException("You don't have permission to edit this post");
         }
 
@@ -237,30 +277,24 @@ public class PostService {
         }
 
         Post updatedPost = postRepository.save(post);
-        return mapToPostResponse(updatedPost, user);
+        return mapToPostResponse(updatedPost, userId);
     }
 
     /**
      * Like a post (reaction)
      */
     @Transactional
-    public ApiResponse<Object> likePost(String email, Long postId) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new PostNotFoundException("Post not found"));
-
-        // Check if already liked
-        if (likeRepository.existsByPostAndUser(post, user)) {
+    public ApiResponse<Object> likePost(Long userId, Long postId) {
+        // The unique (post_id, user_id) key makes this idempotent: a repeated like inserts nothing.
+        // INSERT IGNORE also skips a row whose post does not exist, so only then is the post looked up.
+        if (likeRepository.insertIfAbsent(postId, userId, LocalDateTime.now()) == 0) {
+            if (!postRepository.existsById(postId)) {
+                throw new PostNotFoundException("Post not found");
+            }
             return ApiResponse.error(400, "Bạn đã thích bài viết này rồi");
         }
-
-        // Create new like
-        Like like = new Like();
-        like.setPost(post);
-        like.setUser(user);
-        likeRepository.save(like);
+        postRepository.incrementLikeCount(postId);
+        postCounterReconciler.markActive(postId);
 
         return ApiResponse.success("Đã thích bài viết", null);
     }
@@ -269,18 +303,15 @@ public class PostService {
      * Unlike a post
      */
     @Transactional
-    public ApiResponse<Object> unlikePost(String email, Long postId) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
-
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new PostNotFoundException("Post not found"));
-
-        // Find and delete the like
-        Like like = likeRepository.findByPostAndUser(post, user)
-                .orElseThrow(() -> new RuntimeException("Bạn chưa thích bài viết này"));
-
-        likeRepository.delete(like);
+    public ApiResponse<Object> unlikePost(Long userId, Long postId) {
+        if (likeRepository.deleteByPostIdAndUserId(postId, userId) == 0) {
+            if (!postRepository.existsById(postId)) {
+                throw new PostNotFoundException("Post not found");
+            }
+            throw new RuntimeException("Bạn chưa thích bài viết này");
+        }
+        postRepository.decrementLikeCount(postId);
+        postCounterReconciler.markActive(postId);
 
         return ApiResponse.success("Đã bỏ thích bài viết", null);
     }
@@ -289,9 +320,12 @@ public class PostService {
      * Add comment to a post
      */
     @Transactional
-    public CommentResponse addComment(String email, Long postId, CreateCommentRequest request) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    public CommentResponse addComment(Long userId, Long postId, CreateCommentRequest request) {
+        UserProfileCache.UserProfile author = userProfileCache.get(userId);
+        if (author == null) {
+            throw new UserNotFoundException("User not found");
+        }
+        User user = userRepository.getReferenceById(userId);
 
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new PostNotFoundException("Post not found"));
@@ -302,13 +336,15 @@ public class PostService {
         comment.setContent(request.getContent());
 
         Comment savedComment = commentRepository.save(comment);
+        postRepository.incrementCommentCount(post.getId());
+        postCounterReconciler.markActive(post.getId());
 
         return new CommentResponse(
                 savedComment.getId(),
                 post.getId(),
-                user.getId(),
-                user.getUsername(),
-                user.getAvatarUrl(),
+                author.getId(),
+                author.getUsername(),
+                author.getAvatarUrl(),
                 savedComment.getContent(),
                 savedComment.getCreatedAt()
         );
@@ -317,52 +353,61 @@ public class PostService {
     /**
      * Get all comments for a post
      */
+    @Transactional(readOnly = true)
     public List<CommentResponse> getPostComments(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new PostNotFoundException("Post not found"));
 
         List<Comment> comments = commentRepository.findByPostOrderByCreatedAtDesc(post);
 
+        Map<Long, UserProfileCache.UserProfile> authors = userProfileCache.getAll(comments.stream()
+                .map(comment -> comment.getUser().getId())
+                .collect(Collectors.toSet()));
+
         return comments.stream()
-                .map(comment -> new CommentResponse(
-                        comment.getId(),
-                        post.getId(),
-                        comment.getUser().getId(),
-                        comment.getUser().getUsername(),
-                        comment.getUser().getAvatarUrl(),
-                        comment.getContent(),
-                        comment.getCreatedAt()
-                ))
+                .map(comment -> {
+                    UserProfileCache.UserProfile author = authors.get(comment.getUser().getId());
+                    return new CommentResponse(
+                            comment.getId(),
+                            post.getId(),
+                            comment.getUser().getId(),
+                            author != null ? author.getUsername() : comment.getUser().getUsername(),
+                            author != null ? author.getAvatarUrl() : comment.getUser().getAvatarUrl(),
+                            comment.getContent(),
+                            comment.getCreatedAt()
+                    );
+                })
                 .collect(Collectors.toList());
     }
 
     // Helper methods
 
-    private List<Long> getFriendIds(Long userId) {
-        // Get accepted friend requests where user is sender
-        List<FriendRequest> sentRequests = friendRequestRepository
-                .findBySenderIdAndStatus(userId, FriendRequest.Status.ACCEPTED);
-
-        // Get accepted friend requests where user is receiver
-        List<FriendRequest> receivedRequests = friendRequestRepository
-                .findByReceiverIdAndStatus(userId, FriendRequest.Status.ACCEPTED);
-
-        List<Long> friendIds = new ArrayList<>();
-
-        for (FriendRequest request : sentRequests) {
-            friendIds.add(request.getReceiver().getId());
+    private User getExistingUserReference(Long userId) {
+        if (userProfileCache.get(userId) == null) {
+            throw new UserNotFoundException("User not found");
         }
+        return userRepository.getReferenceById(userId);
+    }
 
-        for (FriendRequest request : receivedRequests) {
-            friendIds.add(request.getSender().getId());
-        }
+    private String toPublicUrl(MediaStorageService.StoredMedia media) {
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/uploads/")
+                .path(media.getFileName())
+                .toUriString();
+    }
 
-        return friendIds;
+    private List<Post> findPostsInOrder(List<Long> postIds) {
+        Map<Long, Post> postsById = postRepository.findAllById(postIds).stream()
+                .collect(Collectors.toMap(Post::getId, post -> post));
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    private boolean canViewPost(Post post, User viewer) {
+    private boolean canViewPost(Post post, Long viewerId) {
         // Owner can always see their own posts
-        if (post.getUser().getId().equals(viewer.getId())) {
+        if (post.getUser().getId().equals(viewerId)) {
             return true;
         }
 
@@ -371,8 +416,7 @@ public class PostService {
             case PUBLIC:
                 return true;
             case FRIENDS:
-                List<Long> friendIds = getFriendIds(viewer.getId());
-                return friendIds.contains(post.getUser().getId());
+                return friendGraphCache.areFriends(viewerId, post.getUser().getId());
             case PRIVATE:
                 return false;
             default:
@@ -380,25 +424,63 @@ public class PostService {
         }
     }
 
-    private PostResponse mapToPostResponse(Post post, User currentUser) {
-        int likesCount = (int) likeRepository.countByPost(post);
-        int commentsCount = (int) commentRepository.countByPost(post);
-        boolean likedByCurrentUser = likeRepository.existsByPostAndUser(post, currentUser);
+    private PostResponse mapToPostResponse(Post post, Long viewerId) {
+        return mapToPostResponses(List.of(post), viewerId).get(0);
+    }
 
-        return new PostResponse(
+    /**
+     * Map a batch of posts. Like and comment counts come from the denormalized counters on the post row;
+     * the viewer's likes are loaded with a single query for the whole batch
+     */
+    private List<PostResponse> mapToPostResponses(List<Post> posts, Long viewerId) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> postIds = posts.stream()
+                .map(Post::getId)
+                .collect(Collectors.toList());
+
+        Set<Long> likedPostIds = new HashSet<>(likeRepository.findLikedPostIds(viewerId, postIds));
+
+        // Resized variants and placeholders of the post images, one query for the whole batch
+        Map<String, MediaBlob> processedImages = imageVariantService.findProcessed(posts.stream()
+                .map(post -> mediaStorageService.toFileName(post.getImageUrl()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        // Author fields come from the profile cache rather than the post's User entity
+        Map<Long, UserProfileCache.UserProfile> authors = userProfileCache.getAll(posts.stream()
+                .map(post -> post.getUser().getId())
+                .collect(Collectors.toSet()));
+
+        return posts.stream()
+                .map(post -> toPostResponse(post, likedPostIds.contains(post.getId()),
+                        processedImages.get(mediaStorageService.toFileName(post.getImageUrl())),
+                        authors.get(post.getUser().getId())))
+                .collect(Collectors.toList());
+    }
+
+    private PostResponse toPostResponse(Post post, boolean liked, MediaBlob processedImage,
+                                        UserProfileCache.UserProfile author) {
+        PostResponse response = new PostResponse(
                 post.getId(),
                 post.getUser().getId(),
-                post.getUser().getUsername(),
-                post.getUser().getAvatarUrl(),
+                author != null ? author.getUsername() : post.getUser().getUsername(),
+                author != null ? author.getAvatarUrl() : post.getUser().getAvatarUrl(),
                 post.getImageUrl(),
                 post.getCaption(),
                 post.getPrivacy().toString(),
-                likesCount,
-                commentsCount,
-                likedByCurrentUser,
+                (int) post.getLikeCount(),
+                (int) post.getCommentCount(),
+                liked,
                 post.getCreatedAt(),
                 post.getUpdatedAt()
         );
+        if (processedImage != null) {
+            response.setImageVariants(imageVariantService.variantUrls(post.getImageUrl(), processedImage));
+            response.setBlurHash(processedImage.getBlurHash());
+        }
+        return response;
     }
 }
-
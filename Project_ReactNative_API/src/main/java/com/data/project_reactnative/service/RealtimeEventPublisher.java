@@ -0,0 +1,59 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.dto.RealtimeEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pushes real-time events to the WebSocket sessions of a user.
+ * Events are sent after the surrounding transaction commits and only to users that are connected.
+ */
+@Service
+public class RealtimeEventPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeEventPublisher.class);
+
+    public static final String EVENTS_DESTINATION = "/queue/events";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SimpUserRegistry simpUserRegistry;
+
+    public void publishToUser(Long userId, String type, Object payload) {
+        RealtimeEventDTO event = new RealtimeEventDTO(type, payload);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(userId, event);
+                }
+            });
+        } else {
+            send(userId, event);
+        }
+    }
+
+    public boolean isOnline(Long userId) {
+        return simpUserRegistry.getUser(String.valueOf(userId)) != null;
+    }
+
+    private void send(Long userId, RealtimeEventDTO event) {
+        if (!isOnline(userId)) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(userId), EVENTS_DESTINATION, event);
+        } catch (Exception e) {
+            logger.warn("Could not push {} event to user {}: {}", event.getType(), userId, e.getMessage());
+        }
+    }
+}
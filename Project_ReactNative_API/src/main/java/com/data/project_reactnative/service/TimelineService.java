@@ -0,0 +1,408 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.Post;
+import com.data.project_reactnative.repository.FriendshipRepository;
+import com.data.project_reactnative.repository.PostRepository;
+import com.data.project_reactnative.repository.UserTimelineRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Optional fan-out-on-write newsfeed (feed.timeline.enabled).
+ * New posts are pushed into a bounded timeline per friend: an in-process ring buffer backed by the user_timeline table.
+ * Fan-out runs after the post is committed, on a small pool, with multi-row inserts.
+ * Authors with more than feed.timeline.celebrity-friend-threshold friends are not fanned out;
+ * their posts are read at query time and merged with the precomputed entries. The set of such authors is
+ * kept in memory and re-evaluated when friendships change; an author who drops below the threshold gets
+ * their recent posts fanned out, since those were never pushed.
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing((TimelineEntry entry) -> entry.createdAt)
+            .thenComparingLong(entry -> entry.postId)
+            .reversed();
+
+    @Autowired
+    private UserTimelineRepository userTimelineRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private FriendshipRepository friendshipRepository;
+
+    @Autowired
+    private FriendGraphCache friendGraphCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${feed.timeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${feed.timeline.capacity:500}")
+    private int capacity;
+
+    @Value("${feed.timeline.celebrity-friend-threshold:1000}")
+    private int celebrityFriendThreshold;
+
+    @Value("${feed.timeline.cache.max-users:10000}")
+    private int maxCachedUsers;
+
+    @Value("${feed.timeline.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${feed.timeline.fanout.threads:2}")
+    private int fanOutThreads;
+
+    @Value("${feed.timeline.fanout.queue-capacity:1000}")
+    private int fanOutQueueCapacity;
+
+    @Value("${feed.timeline.fanout.batch-size:500}")
+    private int fanOutBatchSize;
+
+    // Users with more than celebrityFriendThreshold friends
+    private final Set<Long> celebrities = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor fanOutExecutor;
+
+    private final Map<Long, TimelineBuffer> buffers = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, TimelineBuffer> eldest) {
+            return size() > maxCachedUsers;
+        }
+    };
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        celebrities.addAll(friendshipRepository.findUserIdsWithMoreFriendsThan(celebrityFriendThreshold));
+        logger.info("Loaded {} celebrity authors for the timeline feed", celebrities.size());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // A full queue makes the committing thread do the fan-out itself rather than dropping it
+        fanOutExecutor = new ThreadPoolExecutor(Math.max(1, fanOutThreads), Math.max(1, fanOutThreads),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, fanOutQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "timeline-fanout-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (fanOutExecutor != null) {
+            fanOutExecutor.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Push a newly created post to the timelines of the author's friends, asynchronously after commit
+     */
+    public void fanOut(Post post) {
+        if (!enabled || post.getPrivacy() == Post.Privacy.PRIVATE) {
+            return;
+        }
+
+        TimelineEntry entry = new TimelineEntry(post.getId(), post.getUser().getId(), post.getCreatedAt());
+        afterCommit(() -> fanOutExecutor.execute(() -> {
+            try {
+                pushToFriends(entry);
+            } catch (Exception e) {
+                logger.warn("Could not fan out post {}: {}", entry.postId, e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * Re-evaluate the celebrity status of users whose friendships changed (after commit, asynchronously)
+     */
+    public void friendshipsChanged(Long... userIds) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> fanOutExecutor.execute(() -> {
+            for (Long userId : userIds) {
+                try {
+                    updateCelebrityStatus(userId);
+                } catch (Exception e) {
+                    logger.warn("Could not update timeline status of user {}: {}", userId, e.getMessage());
+                }
+            }
+        }));
+    }
+
+    /**
+     * Get the ids of the next feed page, newest first, strictly older than the (cursorCreatedAt, cursorId) cursor
+     * when one is given. Returns null when the precomputed timeline cannot fill the page,
+     * in which case the caller falls back to fan-out-on-read.
+     */
+    public List<Long> getFeedPostIds(Long userId, List<Long> friendIds,
+                                     LocalDateTime cursorCreatedAt, Long cursorId, int count) {
+        Set<Long> friendSet = new HashSet<>(friendIds);
+        List<Long> celebrityIds = celebrityFriends(friendIds, friendSet);
+        Set<Long> celebritySet = new HashSet<>(celebrityIds);
+        TimelineEntry cursor = cursorCreatedAt != null ? new TimelineEntry(cursorId, null, cursorCreatedAt) : null;
+
+        // Precomputed part: entries from current, non-celebrity friends, older than the cursor
+        Set<Long> seen = new HashSet<>();
+        List<TimelineEntry> candidates = getBuffer(userId).snapshot().stream()
+                .filter(entry -> friendSet.contains(entry.authorId) && !celebritySet.contains(entry.authorId))
+                .filter(entry -> cursor == null || NEWEST_FIRST.compare(entry, cursor) > 0)
+                .filter(entry -> seen.add(entry.postId))
+                .limit(count)
+                .collect(Collectors.toList());
+
+        if (candidates.size() < count) {
+            return null;
+        }
+
+        // Fan-out-on-read part for celebrity friends
+        if (!celebrityIds.isEmpty()) {
+            Pageable pageable = PageRequest.of(0, count);
+            List<Object[]> rows = cursor == null
+                    ? postRepository.findFeedEntriesFirstPage(celebrityIds, pageable)
+                    : postRepository.findFeedEntriesPageBefore(celebrityIds, cursorCreatedAt, cursorId, pageable);
+            for (Object[] row : rows) {
+                candidates.add(new TimelineEntry((Long) row[0], (Long) row[1], (LocalDateTime) row[2]));
+            }
+        }
+
+        return candidates.stream()
+                .sorted(NEWEST_FIRST)
+                .map(entry -> entry.postId)
+                .distinct()
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(cron = "${feed.timeline.retention-cron:0 30 3 * * *}")
+    public void purgeExpiredEntries() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = userTimelineRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        logger.info("Purged {} expired timeline entries", deleted);
+    }
+
+    /**
+     * Celebrities among the given friends (in-memory; iterates the smaller of the two sets)
+     */
+    private List<Long> celebrityFriends(List<Long> friendIds, Set<Long> friendSet) {
+        if (celebrities.size() < friendIds.size()) {
+            return celebrities.stream().filter(friendSet::contains).collect(Collectors.toList());
+        }
+        return friendIds.stream().filter(celebrities::contains).collect(Collectors.toList());
+    }
+
+    private void pushToFriends(TimelineEntry entry) {
+        if (celebrities.contains(entry.authorId)) {
+            logger.info("Author {} is a celebrity - post {} is read on demand instead of fanned out",
+                    entry.authorId, entry.postId);
+            return;
+        }
+        long[] friendIds = friendGraphCache.getFriendIds(entry.authorId);
+        if (friendIds.length == 0) {
+            return;
+        }
+
+        insertEntries(friendIds, List.of(entry));
+        synchronized (buffers) {
+            for (long friendId : friendIds) {
+                // Only buffers already in memory are updated; others are loaded from the table on demand
+                TimelineBuffer buffer = buffers.get(friendId);
+                if (buffer != null) {
+                    buffer.push(entry);
+                }
+            }
+        }
+        logger.info("Post {} fanned out to {} timelines", entry.postId, friendIds.length);
+    }
+
+    private void updateCelebrityStatus(Long userId) {
+        long[] friendIds = friendGraphCache.getFriendIds(userId);
+        if (friendIds.length > celebrityFriendThreshold) {
+            if (celebrities.add(userId)) {
+                logger.info("User {} now has {} friends - their posts are read on demand", userId, friendIds.length);
+            }
+            return;
+        }
+        if (!celebrities.contains(userId)) {
+            return;
+        }
+
+        // Posts written while the user was a celebrity were never fanned out. They are pushed before the user
+        // leaves the celebrity set, so feeds keep reading them on demand until the timelines have them.
+        LocalDateTime since = LocalDateTime.now().minusDays(retentionDays);
+        List<TimelineEntry> recent = new ArrayList<>();
+        for (Object[] row : postRepository.findFeedEntriesFirstPage(List.of(userId), PageRequest.of(0, capacity))) {
+            TimelineEntry entry = new TimelineEntry((Long) row[0], (Long) row[1], (LocalDateTime) row[2]);
+            if (entry.createdAt.isAfter(since)) {
+                recent.add(entry);
+            }
+        }
+        if (!recent.isEmpty()) {
+            insertEntries(friendIds, recent);
+        }
+        celebrities.remove(userId);
+        synchronized (buffers) {
+            // Reloaded from the table, now including the backfilled entries
+            for (long friendId : friendIds) {
+                buffers.remove(friendId);
+            }
+        }
+        logger.info("User {} dropped to {} friends - fanned out {} recent posts", userId, friendIds.length, recent.size());
+    }
+
+    /**
+     * Insert an entry for every (timeline owner, post) pair with multi-row INSERTs of up to fanOutBatchSize rows.
+     * Pairs already present are skipped (unique user_id, post_id), so retries and backfills are idempotent.
+     */
+    private void insertEntries(long[] userIds, List<TimelineEntry> entries) {
+        List<Object> args = new ArrayList<>();
+        int rows = 0;
+        for (long userId : userIds) {
+            for (TimelineEntry entry : entries) {
+                args.add(userId);
+                args.add(entry.postId);
+                args.add(entry.authorId);
+                args.add(entry.createdAt);
+                if (++rows == fanOutBatchSize) {
+                    insertBatch(rows, args);
+                    args.clear();
+                    rows = 0;
+                }
+            }
+        }
+        if (rows > 0) {
+            insertBatch(rows, args);
+        }
+    }
+
+    private void insertBatch(int rows, List<Object> args) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT IGNORE INTO user_timeline (user_id, post_id, author_id, post_created_at) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private TimelineBuffer getBuffer(Long userId) {
+        synchronized (buffers) {
+            TimelineBuffer buffer = buffers.get(userId);
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+
+        TimelineBuffer loaded = new TimelineBuffer(capacity);
+        List<Object[]> rows = userTimelineRepository.findRecentEntries(userId, PageRequest.of(0, capacity));
+        // Rows are newest first; push oldest first so the ring ends up in insertion order
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            Object[] row = rows.get(i);
+            loaded.push(new TimelineEntry((Long) row[0], (Long) row[1], (LocalDateTime) row[2]));
+        }
+
+        synchronized (buffers) {
+            TimelineBuffer existing = buffers.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            buffers.put(userId, loaded);
+            return loaded;
+        }
+    }
+
+    private static class TimelineEntry {
+        private final Long postId;
+        private final Long authorId;
+        private final LocalDateTime createdAt;
+
+        private TimelineEntry(Long postId, Long authorId, LocalDateTime createdAt) {
+            this.postId = postId;
+            this.authorId = authorId;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Fixed-capacity ring of the newest timeline entries; the oldest entry is overwritten when full
+     */
+    private static class TimelineBuffer {
+        private final TimelineEntry[] ring;
+        private int next = 0;
+        private int size = 0;
+
+        private TimelineBuffer(int capacity) {
+            this.ring = new TimelineEntry[Math.max(1, capacity)];
+        }
+
+        private synchronized void push(TimelineEntry entry) {
+            ring[next] = entry;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+
+        private synchronized List<TimelineEntry> snapshot() {
+            List<TimelineEntry> entries = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                entries.add(ring[(next - 1 - i + ring.length) % ring.length]);
+            }
+            entries.sort(NEWEST_FIRST);
+            return entries;
+        }
+    }
+}
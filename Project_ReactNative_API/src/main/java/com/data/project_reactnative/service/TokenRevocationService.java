@@ -0,0 +1,188 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.RevokedToken;
+import com.data.project_reactnative.repository.RefreshTokenRepository;
+import com.data.project_reactnative.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked access-token ids (jti). Revocations are stored in revoked_tokens and mirrored in memory:
+ * a bloom filter answers "not revoked" for almost every token without touching the exact set,
+ * which is only consulted on a filter hit. The in-memory state is reloaded periodically so revocations
+ * made by other instances are picked up, and expired entries fall out of the filter.
+ */
+@Service
+public class TokenRevocationService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.revocation.bloom-bits:1048576}")
+    private int bloomBits;
+
+    @Value("${jwt.revocation.hash-functions:4}")
+    private int hashFunctions;
+
+    private volatile RevocationSnapshot snapshot;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reload();
+    }
+
+    /**
+     * Whether an access token id has been revoked
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        RevocationSnapshot current = snapshot;
+        if (current == null || !current.filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = current.exact.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * Revoke an access token until its expiry (runs in the caller's transaction).
+     * The in-memory state is updated immediately so the token is rejected from the next request on.
+     */
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis() || isRevoked(jti)) {
+            return;
+        }
+
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setJti(jti);
+        revokedToken.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        revokedTokenRepository.save(revokedToken);
+
+        RevocationSnapshot current = snapshot;
+        if (current != null) {
+            current.add(jti, expiresAt.getTime());
+        }
+    }
+
+    /**
+     * Rebuild the bloom filter and the exact set from the still-active revocations
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.reload-interval-ms:60000}", initialDelayString = "${jwt.revocation.reload-interval-ms:60000}")
+    public void reload() {
+        List<Object[]> rows = revokedTokenRepository.findActive(LocalDateTime.now());
+
+        RevocationSnapshot fresh = new RevocationSnapshot(bloomBits, hashFunctions);
+        for (Object[] row : rows) {
+            LocalDateTime expiresAt = (LocalDateTime) row[1];
+            fresh.add((String) row[0], expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        // Keep revocations made locally while the rows were being read
+        RevocationSnapshot previous = snapshot;
+        if (previous != null) {
+            long now = System.currentTimeMillis();
+            previous.exact.forEach((jti, expiresAt) -> {
+                if (expiresAt > now && !fresh.exact.containsKey(jti)) {
+                    fresh.add(jti, expiresAt);
+                }
+            });
+        }
+
+        snapshot = fresh;
+        logger.debug("Loaded {} active token revocations", fresh.exact.size());
+    }
+
+    @Scheduled(cron = "${jwt.cleanup-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int revoked = revokedTokenRepository.deleteExpired(now);
+        int refresh = refreshTokenRepository.deleteExpired(now);
+        logger.info("Purged {} expired token revocations and {} expired refresh tokens", revoked, refresh);
+    }
+
+    private static class RevocationSnapshot {
+        private final BloomFilter filter;
+        private final Map<String, Long> exact = new ConcurrentHashMap<>();
+
+        private RevocationSnapshot(int bits, int hashFunctions) {
+            this.filter = new BloomFilter(bits, hashFunctions);
+        }
+
+        private void add(String jti, long expiresAt) {
+            exact.put(jti, expiresAt);
+            filter.add(jti);
+        }
+    }
+
+    /**
+     * Fixed-size bloom filter over strings using double hashing; safe for concurrent adds and reads
+     */
+    private static class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bits;
+        private final int hashFunctions;
+
+        private BloomFilter(int bits, int hashFunctions) {
+            this.bits = Math.max(64, bits);
+            this.hashFunctions = Math.max(1, hashFunctions);
+            this.words = new AtomicLongArray((this.bits + 63) / 64);
+        }
+
+        private void add(String value) {
+            int h1 = value.hashCode();
+            int h2 = secondHash(value);
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << (bit & 63);
+                int index = bit >>> 6;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        private boolean mightContain(String value) {
+            int h1 = value.hashCode();
+            int h2 = secondHash(value);
+            for (int i = 0; i < hashFunctions; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a, forced odd so the probe sequence does not collapse
+        private static int secondHash(String value) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+}
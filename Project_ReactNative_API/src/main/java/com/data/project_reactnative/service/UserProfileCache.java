@@ -0,0 +1,263 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.config.PrimaryReads;
+import com.data.project_reactnative.repository.UserProfileView;
+import com.data.project_reactnative.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-through cache of public user profile fields (no password), by id and by email, loaded through
+ * the UserProfileView projection rather than User entities.
+ * Loads go to the primary, so a reload right after an update cannot cache a lagging replica's values.
+ * Entries are immutable snapshots that expire after user.cache.ttl-ms and are evicted in LRU order beyond
+ * user.cache.max-entries. Profile changes invalidate the entry; hits and misses are exported as cache.gets.
+ */
+@Service
+public class UserProfileCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PrimaryReads primaryReads;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${user.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${user.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private final Map<Long, UserProfile> byId = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, UserProfile> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private final Map<String, Long> idsByEmail = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    // Bumped on every invalidation so a load that raced with it is not cached
+    private long version = 0;
+
+    private Counter hits;
+
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("cache.gets").tag("cache", "users").tag("result", "hit")
+                .description("User profile cache hits")
+                .register(meterRegistry);
+        misses = Counter.builder("cache.gets").tag("cache", "users").tag("result", "miss")
+                .description("User profile cache misses")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, cache -> cache.size()).tag("cache", "users")
+                .description("Cached user profiles")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Profile of a user, or null when the user does not exist
+     */
+    public UserProfile get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * Profile of the user with an email address, or null when there is none
+     */
+    public UserProfile getByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        long loadVersion;
+        synchronized (this) {
+            Long userId = idsByEmail.get(email);
+            UserProfile cached = userId != null ? fresh(userId) : null;
+            if (cached != null && email.equals(cached.getEmail())) {
+                hits.increment();
+                return cached;
+            }
+            loadVersion = version;
+        }
+
+        misses.increment();
+        UserProfile loaded = primaryReads.read(() -> userRepository.findProfileByEmail(email))
+                .map(UserProfile::new).orElse(null);
+        if (loaded != null) {
+            store(List.of(loaded), loadVersion);
+        }
+        return loaded;
+    }
+
+    /**
+     * Profiles of several users by id; users that do not exist are missing from the map.
+     * All misses are loaded with a single query.
+     */
+    public Map<Long, UserProfile> getAll(Collection<Long> userIds) {
+        Map<Long, UserProfile> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long loadVersion;
+        synchronized (this) {
+            for (Long userId : userIds) {
+                if (userId == null || result.containsKey(userId) || missing.contains(userId)) {
+                    continue;
+                }
+                UserProfile cached = fresh(userId);
+                if (cached != null) {
+                    result.put(userId, cached);
+                } else {
+                    missing.add(userId);
+                }
+            }
+            loadVersion = version;
+        }
+        hits.increment(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        misses.increment(missing.size());
+        List<UserProfile> loaded = new ArrayList<>();
+        for (UserProfileView view : primaryReads.read(() -> userRepository.findProfilesByIdIn(missing))) {
+            UserProfile profile = new UserProfile(view);
+            loaded.add(profile);
+            result.put(profile.getId(), profile);
+        }
+        store(loaded, loadVersion);
+        return result;
+    }
+
+    /**
+     * Drop a user's cached profile. When called inside a transaction it is dropped again after commit,
+     * so a concurrent reload cannot keep the pre-commit values.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    private UserProfile fresh(Long userId) {
+        UserProfile cached = byId.get(userId);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.loadedAt + ttlMs < System.currentTimeMillis()) {
+            byId.remove(userId);
+            idsByEmail.remove(cached.getEmail());
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized void store(List<UserProfile> profiles, long loadVersion) {
+        if (loadVersion != version) {
+            return;
+        }
+        for (UserProfile profile : profiles) {
+            byId.put(profile.getId(), profile);
+            if (profile.getEmail() != null) {
+                idsByEmail.put(profile.getEmail(), profile.getId());
+            }
+        }
+    }
+
+    private synchronized void evict(Long userId) {
+        version++;
+        UserProfile removed = byId.remove(userId);
+        if (removed != null && removed.getEmail() != null) {
+            idsByEmail.remove(removed.getEmail());
+        }
+    }
+
+    /**
+     * Immutable snapshot of the public fields of a user
+     */
+    public static class UserProfile {
+        private final Long id;
+        private final String username;
+        private final String email;
+        private final String phone;
+        private final String avatarUrl;
+        private final String bio;
+        private final LocalDateTime createdAt;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private UserProfile(UserProfileView user) {
+            this.id = user.getId();
+            this.username = user.getUsername();
+            this.email = user.getEmail();
+            this.phone = user.getPhone();
+            this.avatarUrl = user.getAvatarUrl();
+            this.bio = user.getBio();
+            this.createdAt = user.getCreatedAt();
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public String getAvatarUrl() {
+            return avatarUrl;
+        }
+
+        public String getBio() {
+            return bio;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.data.project_reactnative.model.User;
 import com.data.project_reactnative.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
@@ -14,9 +15,18 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
-    public UserResponse getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UserNotFoundException("User not found"));
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Transactional(readOnly = true)
+    public UserResponse getUserById(Long userId) {
+        UserProfileCache.UserProfile user = userProfileCache.get(userId);
+        if (user == null) {
+            throw new UserNotFoundException("User not found");
+        }
 
         return new UserResponse(
                 user.getId(),
@@ -28,12 +38,15 @@ public class UserService {
         );
     }
 
-    public UserResponse updateUser(String email, UpdateUserRequest request) {
-        User user = userRepository.findByEmail(email)
+    @Transactional
+    public UserResponse updateUser(Long userId, UpdateUserRequest request) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
         // Update only avatarUrl and bio
-        if (request.getAvatarUrl() != null) {
+        if (request.getAvatarUrl() != null && !request.getAvatarUrl().equals(user.getAvatarUrl())) {
+            mediaStorageService.releaseReference(user.getAvatarUrl());
+            mediaStorageService.addReference(request.getAvatarUrl());
             user.setAvatarUrl(request.getAvatarUrl());
         }
         if (request.getBio() != null) {
@@ -41,6 +54,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        userProfileCache.invalidate(userId);
 
         return new UserResponse(
                 updatedUser.getId(),
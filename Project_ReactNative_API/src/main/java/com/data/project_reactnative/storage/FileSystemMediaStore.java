@@ -0,0 +1,82 @@
+package com.data.project_reactnative.storage;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Media in the local upload directory (file.upload-dir). Staging files are created in the same directory,
+ * so storing a finished upload is an atomic rename.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemMediaStore implements MediaStore {
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+    }
+
+    @Override
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile(root, "upload-", ".part");
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Files.move(source, resolve(key), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        Path file = resolve(key);
+        return Files.isRegularFile(file) ? Files.size(file) : -1;
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return resolve(key);
+    }
+
+    @Override
+    public String downloadUrl(String key) {
+        return null;
+    }
+
+    @Override
+    public PresignedUpload presignUpload(String key, String contentType, long contentLength, String sha256Base64) {
+        throw new RuntimeException("Direct uploads are only available with the S3 media store");
+    }
+
+    private Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid media key: " + key);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,86 @@
+package com.data.project_reactnative.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Where uploaded media bytes live, addressed by key (the file name used in /uploads/ URLs).
+ * Selected with media.store: "filesystem" (default, the upload directory) or "s3" (any S3-compatible object store).
+ */
+public interface MediaStore {
+
+    /**
+     * Staging file for an upload that is being received; hand it to put() once complete
+     */
+    Path createTempFile() throws IOException;
+
+    /**
+     * Store a complete file under key. The source file is consumed (moved or deleted).
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    /**
+     * Size of a stored object in bytes, or -1 when it does not exist
+     */
+    long size(String key) throws IOException;
+
+    default boolean exists(String key) throws IOException {
+        return size(key) >= 0;
+    }
+
+    InputStream open(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Local file of a stored object, or null when the store is remote and clients are redirected to downloadUrl
+     */
+    Path localPath(String key);
+
+    /**
+     * URL clients can fetch a remote object from directly (null for local stores)
+     */
+    String downloadUrl(String key);
+
+    /**
+     * Pre-signed URL for a client to upload an object directly. The content length and SHA-256 (base64)
+     * are part of the signature, so the store rejects any other bytes.
+     */
+    PresignedUpload presignUpload(String key, String contentType, long contentLength, String sha256Base64);
+
+    /**
+     * A pre-signed request: the client sends the file with this method and these headers to the URL
+     */
+    class PresignedUpload {
+        private final String url;
+        private final String method;
+        private final Map<String, String> headers;
+        private final LocalDateTime expiresAt;
+
+        public PresignedUpload(String url, String method, Map<String, String> headers, LocalDateTime expiresAt) {
+            this.url = url;
+            this.method = method;
+            this.headers = headers;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
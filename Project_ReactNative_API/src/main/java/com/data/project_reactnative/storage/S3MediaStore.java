@@ -0,0 +1,325 @@
+package com.data.project_reactnative.storage;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Media in an S3-compatible bucket (AWS S3, or MinIO locally with media.s3.endpoint and path-style access).
+ * Large files are sent as multipart uploads whose parts go out in parallel on a small pool; clients download
+ * through pre-signed URLs (or media.s3.public-base-url) and can upload directly with pre-signed PUTs.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store", havingValue = "s3")
+public class S3MediaStore implements MediaStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3MediaStore.class);
+
+    // S3 rejects multipart parts smaller than 5 MB (except the last one)
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    @Value("${media.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${media.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${media.s3.bucket:media}")
+    private String bucket;
+
+    @Value("${media.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${media.s3.secret-key:}")
+    private String secretKey;
+
+    @Value("${media.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${media.s3.create-bucket:false}")
+    private boolean createBucket;
+
+    @Value("${media.s3.public-base-url:}")
+    private String publicBaseUrl;
+
+    @Value("${media.s3.presign-ttl-seconds:900}")
+    private long presignTtlSeconds;
+
+    @Value("${media.s3.multipart-threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    @Value("${media.s3.part-size-bytes:8388608}")
+    private int partSize;
+
+    @Value("${media.s3.upload-threads:4}")
+    private int uploadThreads;
+
+    private S3Client s3;
+
+    private S3Presigner presigner;
+
+    private ThreadPoolExecutor partExecutor;
+
+    @PostConstruct
+    void init() {
+        AwsCredentialsProvider credentials = StringUtils.hasText(accessKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create();
+        S3Configuration configuration = S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
+
+        S3ClientBuilder clientBuilder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(configuration);
+        S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(configuration);
+        if (StringUtils.hasText(endpoint)) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+        s3 = clientBuilder.build();
+        presigner = presignerBuilder.build();
+
+        partSize = Math.max(MIN_PART_SIZE, partSize);
+        int threads = Math.max(1, uploadThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Parts beyond the queue run on the uploading thread, which throttles a single huge upload
+        partExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "s3-upload-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        if (createBucket) {
+            try {
+                s3.headBucket(HeadBucketRequest.builder().bucket(bucket).build());
+            } catch (NoSuchBucketException e) {
+                s3.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+                logger.info("Created media bucket {}", bucket);
+            }
+        }
+        logger.info("Media store: bucket {} at {}", bucket, StringUtils.hasText(endpoint) ? endpoint : "AWS " + region);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        partExecutor.shutdown();
+        presigner.close();
+        s3.close();
+    }
+
+    @Override
+    public Path createTempFile() throws IOException {
+        return Files.createTempFile("media-", ".part");
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        try {
+            long size = Files.size(source);
+            if (size >= multipartThreshold) {
+                putMultipart(key, source, contentType, size);
+            } else {
+                s3.putObject(PutObjectRequest.builder().bucket(bucket).key(key).contentType(contentType).build(),
+                        RequestBody.fromFile(source));
+            }
+        } catch (S3Exception e) {
+            throw new IOException("Could not upload " + key + " to " + bucket, e);
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        try {
+            return s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build()).contentLength();
+        } catch (NoSuchKeyException e) {
+            return -1;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return -1;
+            }
+            throw new IOException("Could not read " + key + " from " + bucket, e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (S3Exception e) {
+            throw new IOException("Could not read " + key + " from " + bucket, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (S3Exception e) {
+            throw new IOException("Could not delete " + key + " from " + bucket, e);
+        }
+    }
+
+    @Override
+    public Path localPath(String key) {
+        return null;
+    }
+
+    @Override
+    public String downloadUrl(String key) {
+        if (StringUtils.hasText(publicBaseUrl)) {
+            return publicBaseUrl.replaceAll("/+$", "") + "/" + key;
+        }
+        GetObjectPresignRequest request = GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofSeconds(presignTtlSeconds))
+                .getObjectRequest(GetObjectRequest.builder().bucket(bucket).key(key).build())
+                .build();
+        return presigner.presignGetObject(request).url().toString();
+    }
+
+    @Override
+    public PresignedUpload presignUpload(String key, String contentType, long contentLength, String sha256Base64) {
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .checksumSHA256(sha256Base64)
+                .build();
+        PresignedPutObjectRequest presigned = presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofSeconds(presignTtlSeconds))
+                .putObjectRequest(putRequest)
+                .build());
+
+        // The client's HTTP stack sets Host itself
+        Map<String, String> headers = new LinkedHashMap<>();
+        presigned.signedHeaders().forEach((name, values) -> {
+            if (!"host".equalsIgnoreCase(name)) {
+                headers.put(name, String.join(",", values));
+            }
+        });
+        return new PresignedUpload(presigned.url().toString(), "PUT", headers,
+                LocalDateTime.ofInstant(presigned.expiration(), ZoneId.systemDefault()));
+    }
+
+    private void putMultipart(String key, Path source, String contentType, long size) throws IOException {
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).contentType(contentType).build()).uploadId();
+
+        List<Future<CompletedPart>> futures = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            int partNumber = 1;
+            for (long offset = 0; offset < size; offset += partSize, partNumber++) {
+                long position = offset;
+                int length = (int) Math.min(partSize, size - offset);
+                int number = partNumber;
+                futures.add(partExecutor.submit(() -> uploadPart(key, uploadId, number, channel, position, length)));
+            }
+
+            List<CompletedPart> parts = new ArrayList<>();
+            for (Future<CompletedPart> future : futures) {
+                parts.add(future.get());
+            }
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+            logger.info("Uploaded {} ({} bytes) in {} parts", key, size, parts.size());
+        } catch (InterruptedException | ExecutionException | IOException | RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            try {
+                s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucket).key(key).uploadId(uploadId).build());
+            } catch (RuntimeException abortError) {
+                logger.warn("Could not abort multipart upload {} of {}: {}", uploadId, key, abortError.getMessage());
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Multipart upload of " + key + " failed", e);
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, FileChannel channel,
+                                     long position, int length) throws IOException {
+        // Positional reads, so parts can be read from the shared channel concurrently
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of " + key + " at part " + partNumber);
+            }
+        }
+        buffer.flip();
+
+        String eTag = s3.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(),
+                RequestBody.fromByteBuffer(buffer)).eTag();
+        return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+    }
+}
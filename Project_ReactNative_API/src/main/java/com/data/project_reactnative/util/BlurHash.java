@@ -0,0 +1,106 @@
+package com.data.project_reactnative.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * BlurHash encoder (https://blurha.sh): a short string the app decodes into a blurred placeholder
+ * while the real image loads. Callers should pass a small image; the cost grows with the pixel count.
+ */
+public final class BlurHash {
+
+    private static final String CHARACTERS =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHash() {
+    }
+
+    public static String encode(BufferedImage image, int componentsX, int componentsY) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                factors[j * componentsX + i] = basisFactor(pixels, width, height, i, j);
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83(hash, (componentsX - 1) + (componentsY - 1) * 9, 1);
+
+        double maximumValue;
+        if (factors.length > 1) {
+            double actualMaximum = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double value : factors[k]) {
+                    actualMaximum = Math.max(actualMaximum, Math.abs(value));
+                }
+            }
+            int quantisedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+            maximumValue = (quantisedMaximum + 1) / 166.0;
+            encode83(hash, quantisedMaximum, 1);
+        } else {
+            maximumValue = 1;
+            encode83(hash, 0, 1);
+        }
+
+        double[] dc = factors[0];
+        encode83(hash, (linearToSrgb(dc[0]) << 16) + (linearToSrgb(dc[1]) << 8) + linearToSrgb(dc[2]), 4);
+
+        for (int k = 1; k < factors.length; k++) {
+            double[] ac = factors[k];
+            int quantR = quantiseAc(ac[0], maximumValue);
+            int quantG = quantiseAc(ac[1], maximumValue);
+            int quantB = quantiseAc(ac[2], maximumValue);
+            encode83(hash, quantR * 19 * 19 + quantG * 19 + quantB, 2);
+        }
+
+        return hash.toString();
+    }
+
+    private static double[] basisFactor(int[] pixels, int width, int height, int i, int j) {
+        double r = 0;
+        double g = 0;
+        double b = 0;
+        double normalisation = (i == 0 && j == 0) ? 1 : 2;
+
+        for (int y = 0; y < height; y++) {
+            double basisY = Math.cos(Math.PI * j * y / height);
+            for (int x = 0; x < width; x++) {
+                double basis = normalisation * Math.cos(Math.PI * i * x / width) * basisY;
+                int rgb = pixels[y * width + x];
+                r += basis * srgbToLinear((rgb >> 16) & 0xff);
+                g += basis * srgbToLinear((rgb >> 8) & 0xff);
+                b += basis * srgbToLinear(rgb & 0xff);
+            }
+        }
+
+        double scale = 1.0 / (width * height);
+        return new double[]{r * scale, g * scale, b * scale};
+    }
+
+    private static int quantiseAc(double value, double maximumValue) {
+        double signedRoot = Math.copySign(Math.sqrt(Math.abs(value / maximumValue)), value);
+        return (int) Math.max(0, Math.min(18, Math.floor(signedRoot * 9 + 9.5)));
+    }
+
+    private static double srgbToLinear(int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(StringBuilder hash, int value, int length) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            hash.append(CHARACTERS.charAt(digit));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.data.project_reactnative.util;
+
+import com.data.project_reactnative.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the newsfeed: the (createdAt, id) of the last post of a page,
+ * handed to the client as an opaque URL-safe token.
+ */
+public final class FeedCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public FeedCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String encode(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token produced by encode; throws InvalidCursorException for anything else
+     */
+    public static FeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new FeedCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid feed cursor");
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
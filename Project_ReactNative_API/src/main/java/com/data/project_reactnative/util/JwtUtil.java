@@ -1,29 +1,71 @@
 package com.data.project_reactnative.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
+    private static final String USER_ID_CLAIM = "userId";
+
+    private static final String AUTHORITIES_CLAIM = "authorities";
+
+    private static final List<String> DEFAULT_AUTHORITIES = List.of("USER");
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    private Key signingKey;
+
+    // Immutable and thread-safe, shared by all requests
+    private JwtParser parser;
+
+    // SHA-256 of the token -> claims verified for it, kept until the token expires
+    private final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > maxCachedTokens;
+        }
+    };
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return signingKey;
     }
 
     public String extractUsername(String token) {
@@ -31,8 +73,27 @@ public class JwtUtil {
     }
 
     public Long extractUserId(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("userId", Long.class);
+        return getUserId(extractAllClaims(token));
+    }
+
+    /**
+     * Parse and verify a token (signature and expiration); throws if the token is not valid
+     */
+    public Claims parseClaims(String token) {
+        return extractAllClaims(token);
+    }
+
+    public Long getUserId(Claims claims) {
+        Object userId = claims.get(USER_ID_CLAIM);
+        return userId instanceof Number ? ((Number) userId).longValue() : null;
+    }
+
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        Object value = claims.get(AUTHORITIES_CLAIM);
+        List<?> names = value instanceof List ? (List<?>) value : DEFAULT_AUTHORITIES;
+        return names.stream()
+                .map(name -> new SimpleGrantedAuthority(String.valueOf(name)))
+                .collect(Collectors.toList());
     }
 
     public Date extractExpiration(String token) {
@@ -44,12 +105,46 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verified claims of a token. The signature is checked once per token lifetime;
+     * later calls are served from the cache until the token expires.
+     */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String tokenHash = hashToken(token);
+        long now = System.currentTimeMillis();
+
+        synchronized (verifiedTokens) {
+            VerifiedToken cached = verifiedTokens.get(tokenHash);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    return cached.claims;
+                }
+                verifiedTokens.remove(tokenHash);
+            }
+        }
+
+        // Throws for a bad signature, a malformed token or an expired token
+        Claims claims = parser.parseClaimsJws(token).getBody();
+
+        Date expiresAt = claims.getExpiration();
+        if (expiresAt != null) {
+            synchronized (verifiedTokens) {
+                verifiedTokens.put(tokenHash, new VerifiedToken(claims, expiresAt.getTime()));
+            }
+        }
+        return claims;
+    }
+
+    /**
+     * Hex SHA-256 of a token, used wherever a token has to be stored or looked up without keeping the token itself
+     */
+    public String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private Boolean isTokenExpired(String token) {
@@ -63,13 +158,15 @@ public class JwtUtil {
 
     public String generateToken(String username, Long userId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(AUTHORITIES_CLAIM, DEFAULT_AUTHORITIES);
         return createToken(claims, username);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
@@ -77,9 +174,26 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Lifetime of access tokens in milliseconds
+     */
+    public long getExpirationMs() {
+        return expiration;
+    }
+
     public Boolean validateToken(String token, String username) {
         final String extractedUsername = extractUsername(token);
         return (extractedUsername.equals(username) && !isTokenExpired(token));
     }
+
+    private static class VerifiedToken {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
 
@@ -0,0 +1,75 @@
+-- Columns and tables that did not exist in the ddl-auto=update schema; runs on fresh and baselined databases alike.
+
+-- Denormalized like/comment counters on post, backfilled from the existing rows. Likes are counted per user since
+-- duplicate (post, user) rows are removed in V2.
+alter table post
+    add column like_count bigint not null default 0,
+    add column comment_count bigint not null default 0;
+update post p
+set p.like_count = (select count(distinct l.user_id) from post_like l where l.post_id = p.id),
+    p.comment_count = (select count(*) from comment c where c.post_id = p.id);
+
+create table conversation_summary (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    partner_id bigint not null,
+    last_message_id bigint,
+    last_message_preview varchar(255),
+    last_message_at datetime(6),
+    unread_count bigint not null,
+    last_read_message_id bigint,
+    primary key (id),
+    constraint uk_conversation_summary_user_partner unique (user_id, partner_id),
+    index idx_conversation_summary_user_time (user_id, last_message_at),
+    constraint fk_conversation_summary_partner foreign key (partner_id) references user (id)
+) engine=InnoDB;
+
+create table media_blobs (
+    id bigint not null auto_increment,
+    sha256 varchar(64) not null,
+    file_name varchar(255) not null,
+    content_type varchar(255),
+    size bigint not null,
+    ref_count bigint not null,
+    last_uploaded_at datetime(6) not null,
+    image_width integer,
+    image_height integer,
+    blur_hash varchar(64),
+    variant_widths varchar(64),
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_media_blobs_sha256 unique (sha256),
+    constraint uk_media_blobs_file_name unique (file_name),
+    index idx_media_blobs_unreferenced (ref_count, last_uploaded_at)
+) engine=InnoDB;
+
+create table refresh_tokens (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    token_hash varchar(64) not null,
+    expires_at datetime(6) not null,
+    revoked_at datetime(6),
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_refresh_tokens_token_hash unique (token_hash),
+    index idx_refresh_tokens_user (user_id)
+) engine=InnoDB;
+
+create table revoked_tokens (
+    id bigint not null auto_increment,
+    jti varchar(36) not null,
+    expires_at datetime(6) not null,
+    primary key (id),
+    constraint uk_revoked_tokens_jti unique (jti),
+    index idx_revoked_tokens_expires (expires_at)
+) engine=InnoDB;
+
+create table user_timeline (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    post_id bigint not null,
+    author_id bigint not null,
+    post_created_at datetime(6) not null,
+    primary key (id),
+    index idx_user_timeline_user_created (user_id, post_created_at, post_id)
+) engine=InnoDB;
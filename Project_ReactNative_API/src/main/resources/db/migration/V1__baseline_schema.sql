@@ -0,0 +1,133 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update from the entities, before any of the tables
+-- and columns added in later versions. Databases that already have these tables are baselined at this version.
+
+create table user (
+    id bigint not null auto_increment,
+    username varchar(255),
+    email varchar(255),
+    password varchar(255),
+    phone varchar(255),
+    avatar_url varchar(255),
+    bio varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table chat (
+    id bigint not null auto_increment,
+    primary key (id)
+) engine=InnoDB;
+
+create table chat_participants (
+    chat_id bigint not null,
+    user_id bigint not null,
+    constraint fk_chat_participants_chat foreign key (chat_id) references chat (id),
+    constraint fk_chat_participants_user foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table post (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    image_url varchar(255),
+    caption varchar(255),
+    privacy enum ('PUBLIC','FRIENDS','PRIVATE'),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id),
+    constraint fk_post_user foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table comment (
+    id bigint not null auto_increment,
+    post_id bigint not null,
+    user_id bigint not null,
+    content varchar(255),
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_comment_post foreign key (post_id) references post (id),
+    constraint fk_comment_user foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table post_like (
+    id bigint not null auto_increment,
+    post_id bigint not null,
+    user_id bigint not null,
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_post_like_post foreign key (post_id) references post (id),
+    constraint fk_post_like_user foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table message (
+    id bigint not null auto_increment,
+    sender_id bigint not null,
+    receiver_id bigint not null,
+    content varchar(255),
+    image_url varchar(255),
+    video_url varchar(255),
+    type enum ('TEXT','IMAGE','VIDEO'),
+    created_at datetime(6),
+    is_read bit not null,
+    chat_id bigint,
+    primary key (id),
+    constraint fk_message_sender foreign key (sender_id) references user (id),
+    constraint fk_message_receiver foreign key (receiver_id) references user (id),
+    constraint fk_message_chat foreign key (chat_id) references chat (id)
+) engine=InnoDB;
+
+create table message_reactions (
+    id bigint not null auto_increment,
+    message_id bigint not null,
+    user_id bigint not null,
+    reaction_type enum ('LIKE','LOVE','HAHA','WOW','SAD','ANGRY') not null,
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_message_reactions_message_user_type unique (message_id, user_id, reaction_type),
+    constraint fk_message_reactions_message foreign key (message_id) references message (id),
+    constraint fk_message_reactions_user foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table notification (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    type enum ('FOLLOW','LIKE','COMMENT','MESSAGE'),
+    content varchar(255),
+    is_read bit not null,
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_notification_user foreign key (user_id) references user (id)
+) engine=InnoDB;
+
+create table friend_request (
+    id bigint not null auto_increment,
+    sender_id bigint not null,
+    receiver_id bigint not null,
+    status enum ('PENDING','ACCEPTED','REJECTED'),
+    created_at datetime(6),
+    primary key (id),
+    constraint fk_friend_request_sender foreign key (sender_id) references user (id),
+    constraint fk_friend_request_receiver foreign key (receiver_id) references user (id)
+) engine=InnoDB;
+
+create table friendships (
+    id bigint not null auto_increment,
+    user_id bigint not null,
+    friend_id bigint not null,
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_friendships_user_friend unique (user_id, friend_id),
+    constraint fk_friendships_user foreign key (user_id) references user (id),
+    constraint fk_friendships_friend foreign key (friend_id) references user (id)
+) engine=InnoDB;
+
+create table blocked_users (
+    id bigint not null auto_increment,
+    blocker_id bigint not null,
+    blocked_id bigint not null,
+    created_at datetime(6),
+    primary key (id),
+    constraint uk_blocked_users_blocker_blocked unique (blocker_id, blocked_id),
+    constraint fk_blocked_users_blocker foreign key (blocker_id) references user (id),
+    constraint fk_blocked_users_blocked foreign key (blocked_id) references user (id)
+) engine=InnoDB;
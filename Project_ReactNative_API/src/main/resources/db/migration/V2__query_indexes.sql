@@ -0,0 +1,36 @@
+-- Composite indexes for the predicates and orderings of the repository queries.
+-- InnoDB secondary indexes carry the primary key, so (..., created_at) also serves "ORDER BY created_at, id".
+
+-- Likes: one row per (post, user). Duplicates left by the old check-then-insert race are removed first;
+-- the like counters backfilled in V1.1 already count each (post, user) once.
+delete l1 from post_like l1
+    join post_like l2 on l1.post_id = l2.post_id and l1.user_id = l2.user_id and l1.id > l2.id;
+alter table post_like add constraint uk_post_like_post_user unique (post_id, user_id);
+-- findLikedPostIds: user_id = ? and post_id in (...)
+create index idx_post_like_user_post on post_like (user_id, post_id);
+
+-- Posts of one or more authors, newest first (profile and feed pages); privacy makes the feed entry queries covering
+create index idx_post_user_created on post (user_id, created_at, privacy);
+-- findPublicPostsOrderByCreatedAtDesc
+create index idx_post_privacy_created on post (privacy, created_at);
+
+-- findByPostOrderByCreatedAtDesc and the per-post comment counts
+create index idx_comment_post_created on comment (post_id, created_at);
+
+-- Conversation history between two users, newest first (getMessagesBetweenUsers pages)
+create index idx_message_sender_receiver_created on message (sender_id, receiver_id, created_at);
+-- Unread messages of a receiver (counts), optionally narrowed to one sender (markMessagesAsRead)
+create index idx_message_receiver_read_sender on message (receiver_id, is_read, sender_id);
+
+-- Incoming and outgoing friend requests by status; the trailing column serves the pairwise lookups
+create index idx_friend_request_receiver_status on friend_request (receiver_id, status, sender_id);
+create index idx_friend_request_sender_status on friend_request (sender_id, status, receiver_id);
+
+-- Login and registration lookups
+create index idx_user_email on user (email);
+create index idx_user_username on user (username);
+create index idx_user_phone on user (phone);
+
+-- Expiry clean-up jobs
+create index idx_refresh_tokens_expires on refresh_tokens (expires_at);
+create index idx_user_timeline_post_created on user_timeline (post_created_at);
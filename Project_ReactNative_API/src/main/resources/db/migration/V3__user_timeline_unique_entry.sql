@@ -0,0 +1,4 @@
+-- One timeline entry per (timeline owner, post), so asynchronous fan-out and celebrity backfills can use INSERT IGNORE
+delete t1 from user_timeline t1
+    join user_timeline t2 on t1.user_id = t2.user_id and t1.post_id = t2.post_id and t1.id > t2.id;
+alter table user_timeline add constraint uk_user_timeline_user_post unique (user_id, post_id);
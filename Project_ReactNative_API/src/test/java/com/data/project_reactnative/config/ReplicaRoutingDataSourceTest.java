@@ -0,0 +1,132 @@
+package com.data.project_reactnative.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_SECONDS = 5;
+
+    @Mock
+    private DataSource primary;
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(replica(0L), replica(1L));
+        dataSource.checkReplicas();
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionsUseThePrimaryUntilALagCheckPasses() {
+        ReplicaRoutingDataSource dataSource = routing(mock(DataSource.class), mock(DataSource.class));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void readOnlyTransactionsTakeTurnsOnHealthyReplicas() throws SQLException {
+        ReplicaRoutingDataSource dataSource = routing(replica(0L), replica(MAX_LAG_SECONDS));
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Set<Object> keys = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            keys.add(dataSource.determineCurrentLookupKey());
+        }
+
+        assertThat(keys).containsExactlyInAnyOrder("replica-1", "replica-2");
+    }
+
+    @Test
+    void laggingAndFailingReplicasAreSkipped() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource dataSource = routing(replica(0L), replica(MAX_LAG_SECONDS + 1), failing);
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+        }
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileEveryReplicaLagsAndReturnOnceOneCatchesUp() throws SQLException {
+        DataSource replica = replica(MAX_LAG_SECONDS + 1, 0L);
+        ReplicaRoutingDataSource dataSource = routing(replica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        dataSource.checkReplicas();
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        dataSource.checkReplicas();
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-1");
+    }
+
+    @Test
+    void replicaWithReplicationStoppedIsSkipped() throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        ResultSet status = status(replica);
+        when(status.getLong("Seconds_Behind_Source")).thenReturn(0L);
+        when(status.wasNull()).thenReturn(true);
+        ReplicaRoutingDataSource dataSource = routing(replica);
+        dataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    private ReplicaRoutingDataSource routing(DataSource... replicas) {
+        Map<String, DataSource> targets = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            targets.put("replica-" + (i + 1), replicas[i]);
+        }
+        return new ReplicaRoutingDataSource(primary, targets, MAX_LAG_SECONDS);
+    }
+
+    // A replica reporting these lags (in seconds) on consecutive checks
+    private static DataSource replica(Long lag, Long... laterLags) throws SQLException {
+        DataSource replica = mock(DataSource.class);
+        ResultSet status = status(replica);
+        when(status.getLong("Seconds_Behind_Source")).thenReturn(lag, laterLags);
+        return replica;
+    }
+
+    private static ResultSet status(DataSource replica) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet status = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(status);
+        when(status.next()).thenReturn(true);
+        return status;
+    }
+}
@@ -0,0 +1,142 @@
+package com.data.project_reactnative.controller;
+
+import com.data.project_reactnative.service.ImageVariantService;
+import com.data.project_reactnative.storage.MediaStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class UploadControllerTest {
+
+    private static final String FILE_NAME = "abc123.jpg";
+
+    private static final String ETAG = "\"abc123\"";
+
+    @Mock
+    private MediaStore mediaStore;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @InjectMocks
+    private UploadController uploadController;
+
+    @TempDir
+    Path uploadDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(uploadController, "maxAgeSeconds", 31536000L);
+        ReflectionTestUtils.setField(uploadController, "fallbackMaxAgeSeconds", 3600L);
+        ReflectionTestUtils.setField(uploadController, "redirectMaxAgeSeconds", 300L);
+
+        Path file = uploadDir.resolve(FILE_NAME);
+        Files.writeString(file, "0123456789", StandardCharsets.US_ASCII);
+        when(mediaStore.localPath(FILE_NAME)).thenReturn(file);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(uploadController).build();
+    }
+
+    @Test
+    void servesWholeFileWithStrongEtag() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + ETAG))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, "*"))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void servesSingleByteRange() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void openEndedAndSuffixRanges() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=7-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().string("789"));
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().string("789"));
+        // End past the file size is clamped
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=8-100"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-9/10"))
+                .andExpect(content().string("89"));
+    }
+
+    @Test
+    void unsatisfiableRangeIsRejected() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=10-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=5-2"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+        mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, "bytes=-0"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+    }
+
+    @Test
+    void malformedOrMultipleRangesServeWholeFile() throws Exception {
+        for (String range : new String[]{"bytes=0-1,4-5", "items=0-1", "bytes=abc-", "bytes=5"}) {
+            mockMvc.perform(get("/uploads/" + FILE_NAME).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string("0123456789"));
+        }
+    }
+
+    @Test
+    void rangeIsIgnoredWhenIfRangeDoesNotMatch() throws Exception {
+        mockMvc.perform(get("/uploads/" + FILE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("0123456789"));
+        mockMvc.perform(get("/uploads/" + FILE_NAME)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, ETAG))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("2345"));
+    }
+}
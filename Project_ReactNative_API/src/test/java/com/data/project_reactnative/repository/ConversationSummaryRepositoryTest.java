@@ -0,0 +1,120 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.ConversationSummary;
+import com.data.project_reactnative.model.Message;
+import com.data.project_reactnative.model.User;
+import com.data.project_reactnative.service.ConversationSummaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(ConversationSummaryService.class)
+class ConversationSummaryRepositoryTest extends MySqlRepositoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+
+    @Autowired
+    private ConversationSummaryService conversationSummaryService;
+
+    private User alice;
+
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(user("alice"));
+        bob = entityManager.persist(user("bob"));
+        entityManager.flush();
+    }
+
+    @Test
+    void firstMessageCreatesBothRows() {
+        conversationSummaryService.recordMessage(message(10L, bob, alice, "hi"));
+
+        ConversationSummary received = summary(alice, bob);
+        assertThat(received.getLastMessageId()).isEqualTo(10L);
+        assertThat(received.getLastMessagePreview()).isEqualTo("hi");
+        assertThat(received.getUnreadCount()).isEqualTo(1);
+
+        ConversationSummary sent = summary(bob, alice);
+        assertThat(sent.getLastMessageId()).isEqualTo(10L);
+        assertThat(sent.getUnreadCount()).isZero();
+    }
+
+    @Test
+    void laterMessagesUpdateTheExistingRow() {
+        conversationSummaryService.recordMessage(message(10L, bob, alice, "hi"));
+        conversationSummaryService.recordMessage(message(12L, bob, alice, "are you there?"));
+        conversationSummaryService.recordMessage(message(13L, alice, bob, "yes"));
+
+        ConversationSummary inbox = summary(alice, bob);
+        assertThat(inbox.getLastMessageId()).isEqualTo(13L);
+        assertThat(inbox.getLastMessagePreview()).isEqualTo("yes");
+        assertThat(inbox.getUnreadCount()).isEqualTo(2);
+        assertThat(conversationSummaryRepository.findInbox(alice.getId())).hasSize(1);
+    }
+
+    @Test
+    void lateCommittedMessageOnlyCountsAsUnread() {
+        conversationSummaryService.recordMessage(message(12L, bob, alice, "newer"));
+        conversationSummaryService.recordMessage(message(11L, bob, alice, "older, committed late"));
+
+        ConversationSummary received = summary(alice, bob);
+        assertThat(received.getLastMessageId()).isEqualTo(12L);
+        assertThat(received.getLastMessagePreview()).isEqualTo("newer");
+        assertThat(received.getLastMessageAt()).isEqualTo(BASE.plusMinutes(12));
+        assertThat(received.getUnreadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void inboxIsOrderedByLastMessage() {
+        User carol = entityManager.persist(user("carol"));
+        entityManager.flush();
+        conversationSummaryService.recordMessage(message(10L, bob, alice, "from bob"));
+        conversationSummaryService.recordMessage(message(11L, carol, alice, "from carol"));
+
+        List<ConversationSummary> inbox = conversationSummaryRepository.findInbox(alice.getId());
+
+        assertThat(inbox).extracting(ConversationSummary::getLastMessageId).containsExactly(11L, 10L);
+    }
+
+    private ConversationSummary summary(User user, User partner) {
+        entityManager.clear();
+        return conversationSummaryRepository.findInbox(user.getId()).stream()
+                .filter(summary -> summary.getPartner().getId().equals(partner.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    // Only the fields recordMessage reads; message n is sent n minutes after BASE
+    private static Message message(Long id, User sender, User receiver, String content) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent(content);
+        message.setCreatedAt(BASE.plusMinutes(id));
+        return message;
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return user;
+    }
+}
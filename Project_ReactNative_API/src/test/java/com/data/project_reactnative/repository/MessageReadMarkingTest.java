@@ -0,0 +1,152 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.ConversationSummary;
+import com.data.project_reactnative.model.Message;
+import com.data.project_reactnative.model.User;
+import com.data.project_reactnative.service.ConversationSummaryService;
+import com.data.project_reactnative.service.MediaStorageService;
+import com.data.project_reactnative.service.MessageService;
+import com.data.project_reactnative.service.NotificationCounterService;
+import com.data.project_reactnative.service.RealtimeEventPublisher;
+import com.data.project_reactnative.service.UserProfileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * MessageService.markMessagesAsRead: one UPDATE up to a watermark, with the conversation summary and the
+ * unread counter adjusted by the number of rows it changed
+ */
+@Import({MessageService.class, ConversationSummaryService.class})
+class MessageReadMarkingTest extends MySqlRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private ConversationSummaryService conversationSummaryService;
+
+    @MockitoBean
+    private NotificationCounterService notificationCounterService;
+
+    @MockitoBean
+    private RealtimeEventPublisher realtimeEventPublisher;
+
+    @MockitoBean
+    private MediaStorageService mediaStorageService;
+
+    @MockitoBean
+    private UserProfileCache userProfileCache;
+
+    private User alice;
+
+    private User bob;
+
+    // Sent by bob to alice, oldest first
+    private final List<Message> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(user("alice"));
+        bob = entityManager.persist(user("bob"));
+        for (int i = 0; i < 4; i++) {
+            received.add(send(bob, alice, "message " + i));
+        }
+        send(alice, bob, "reply");
+        entityManager.flush();
+    }
+
+    @Test
+    void marksMessagesUpToTheWatermark() {
+        messageService.markMessagesAsRead(alice.getId(), bob.getId(), received.get(2).getId());
+
+        entityManager.clear();
+        assertThat(isRead(received.get(0))).isTrue();
+        assertThat(isRead(received.get(2))).isTrue();
+        assertThat(isRead(received.get(3))).isFalse();
+        assertThat(messageRepository.countUnreadMessagesForUser(alice.getId())).isEqualTo(1);
+        // bob's unread reply from alice is untouched
+        assertThat(messageRepository.countUnreadMessagesForUser(bob.getId())).isEqualTo(1);
+
+        ConversationSummary summary = summary(alice);
+        assertThat(summary.getLastReadMessageId()).isEqualTo(received.get(2).getId());
+        assertThat(summary.getUnreadCount()).isEqualTo(1);
+        verify(notificationCounterService).adjustUnreadMessages(alice.getId(), -3);
+    }
+
+    @Test
+    void withoutWatermarkMarksTheWholeConversation() {
+        messageService.markMessagesAsRead(alice.getId(), bob.getId(), null);
+
+        entityManager.clear();
+        assertThat(messageRepository.countUnreadMessagesForUser(alice.getId())).isZero();
+        assertThat(summary(alice).getUnreadCount()).isZero();
+        verify(notificationCounterService).adjustUnreadMessages(alice.getId(), -4);
+    }
+
+    @Test
+    void olderWatermarkDoesNotMoveBackOrCountTwice() {
+        messageService.markMessagesAsRead(alice.getId(), bob.getId(), received.get(2).getId());
+        messageService.markMessagesAsRead(alice.getId(), bob.getId(), received.get(1).getId());
+
+        entityManager.clear();
+        ConversationSummary summary = summary(alice);
+        assertThat(summary.getLastReadMessageId()).isEqualTo(received.get(2).getId());
+        assertThat(summary.getUnreadCount()).isEqualTo(1);
+        verify(notificationCounterService).adjustUnreadMessages(alice.getId(), -3);
+        verify(notificationCounterService, never()).adjustUnreadMessages(alice.getId(), 0);
+    }
+
+    @Test
+    void repeatedMarkingAdjustsCountersOnce() {
+        messageService.markMessagesAsRead(bob.getId(), alice.getId(), null);
+        messageService.markMessagesAsRead(bob.getId(), alice.getId(), null);
+
+        verify(notificationCounterService).adjustUnreadMessages(bob.getId(), -1);
+        verify(notificationCounterService, never()).adjustUnreadMessages(anyLong(), eq(0L));
+    }
+
+    private Message send(User sender, User receiver, String content) {
+        Message message = new Message();
+        message.setSender(sender);
+        message.setReceiver(receiver);
+        message.setContent(content);
+        message = entityManager.persistAndFlush(message);
+        conversationSummaryService.recordMessage(message);
+        return message;
+    }
+
+    private boolean isRead(Message message) {
+        return entityManager.find(Message.class, message.getId()).isRead();
+    }
+
+    private ConversationSummary summary(User user) {
+        return conversationSummaryService.getInbox(user.getId()).get(0);
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return user;
+    }
+}
@@ -0,0 +1,176 @@
+package com.data.project_reactnative.repository;
+
+import com.data.project_reactnative.model.Comment;
+import com.data.project_reactnative.model.Like;
+import com.data.project_reactnative.model.Post;
+import com.data.project_reactnative.model.User;
+import com.data.project_reactnative.service.PostCounterReconciler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counter UPDATE queries and the reconciler against an in-memory database (the Flyway migrations are MySQL-only,
+ * so the schema is generated from the entities)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:counters;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostCounterReconciler.class)
+class PostCounterRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private PostCounterReconciler postCounterReconciler;
+
+    private User author;
+
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        author = entityManager.persist(user("author"));
+        post = entityManager.persist(post(author));
+        entityManager.flush();
+    }
+
+    @Test
+    void incrementsAndDecrementsInPlace() {
+        assertThat(postRepository.incrementLikeCount(post.getId())).isEqualTo(1);
+        assertThat(postRepository.incrementLikeCount(post.getId())).isEqualTo(1);
+        assertThat(postRepository.incrementCommentCount(post.getId())).isEqualTo(1);
+        assertThat(postRepository.decrementLikeCount(post.getId())).isEqualTo(1);
+
+        Post stored = reload(post);
+        assertThat(stored.getLikeCount()).isEqualTo(1);
+        assertThat(stored.getCommentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void likeCountNeverGoesNegative() {
+        assertThat(postRepository.decrementLikeCount(post.getId())).isZero();
+
+        assertThat(reload(post).getLikeCount()).isZero();
+    }
+
+    @Test
+    void counterEntityFieldsAreNotWrittenBack() {
+        postRepository.incrementLikeCount(post.getId());
+        Post stale = reload(post);
+        postRepository.incrementLikeCount(post.getId());
+
+        // A save from a stale snapshot must not undo the second increment
+        stale.setCaption("edited");
+        stale.setLikeCount(0);
+        postRepository.saveAndFlush(stale);
+
+        assertThat(reload(post).getLikeCount()).isEqualTo(2);
+    }
+
+    @Test
+    void compareAndSetOnlyAppliesToTheExpectedSnapshot() {
+        postRepository.incrementLikeCount(post.getId());
+
+        assertThat(postRepository.updateCountersIfUnchanged(post.getId(), 0, 0, 5, 5)).isZero();
+        assertThat(reload(post).getLikeCount()).isEqualTo(1);
+
+        assertThat(postRepository.updateCountersIfUnchanged(post.getId(), 1, 0, 3, 2)).isEqualTo(1);
+        Post stored = reload(post);
+        assertThat(stored.getLikeCount()).isEqualTo(3);
+        assertThat(stored.getCommentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void reconcilerCorrectsDriftedActivePosts() {
+        User reader = entityManager.persist(user("reader"));
+        entityManager.persist(like(post, author));
+        entityManager.persist(like(post, reader));
+        entityManager.persist(comment(post, reader));
+        // Counters drifted: one like and the comment were never counted, plus a phantom like elsewhere
+        postRepository.incrementLikeCount(post.getId());
+        Post other = entityManager.persist(post(author));
+        entityManager.flush();
+        postRepository.incrementLikeCount(other.getId());
+
+        postCounterReconciler.markActive(post.getId());
+        postCounterReconciler.reconcile();
+
+        Post stored = reload(post);
+        assertThat(stored.getLikeCount()).isEqualTo(2);
+        assertThat(stored.getCommentCount()).isEqualTo(1);
+        // Not marked active, so only the full sweep repairs it
+        assertThat(reload(other).getLikeCount()).isEqualTo(1);
+
+        postCounterReconciler.reconcileAll();
+        assertThat(reload(other).getLikeCount()).isZero();
+    }
+
+    @Test
+    void snapshotQueriesReturnCountersInIdOrder() {
+        Post second = entityManager.persist(post(author));
+        entityManager.flush();
+        postRepository.incrementCommentCount(second.getId());
+
+        List<Object[]> rows = postRepository.findCounterSnapshotByIds(List.of(second.getId(), post.getId()));
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsExactly(post.getId(), 0L, 0L);
+        assertThat(rows.get(1)).containsExactly(second.getId(), 0L, 1L);
+    }
+
+    private Post reload(Post post) {
+        entityManager.flush();
+        entityManager.clear();
+        return postRepository.findById(post.getId()).orElseThrow();
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("secret");
+        return user;
+    }
+
+    private static Post post(User author) {
+        Post post = new Post();
+        post.setUser(author);
+        post.setCaption("caption");
+        return post;
+    }
+
+    private static Like like(Post post, User user) {
+        Like like = new Like();
+        like.setPost(post);
+        like.setUser(user);
+        return like;
+    }
+
+    private static Comment comment(Post post, User user) {
+        Comment comment = new Comment();
+        comment.setPost(post);
+        comment.setUser(user);
+        comment.setContent("comment");
+        return comment;
+    }
+}
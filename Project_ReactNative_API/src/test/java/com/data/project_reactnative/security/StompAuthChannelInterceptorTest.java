@@ -0,0 +1,123 @@
+package com.data.project_reactnative.security;
+
+import com.data.project_reactnative.service.TokenRevocationService;
+import com.data.project_reactnative.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StompAuthChannelInterceptorTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @InjectMocks
+    private StompAuthChannelInterceptor interceptor;
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void connectWithValidTokenSetsUserIdAsPrincipal() {
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(jwtUtil.parseClaims("token")).thenReturn(claims);
+        when(jwtUtil.getUserId(claims)).thenReturn(7L);
+        StompHeaderAccessor accessor = accessor(StompCommand.CONNECT, null);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+
+        interceptor.preSend(message(accessor), channel);
+
+        assertThat(accessor.getUser()).isNotNull();
+        assertThat(accessor.getUser().getName()).isEqualTo("7");
+    }
+
+    @Test
+    void connectWithoutValidTokenIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(message(accessor(StompCommand.CONNECT, null)), channel))
+                .isInstanceOf(MessagingException.class);
+
+        when(jwtUtil.parseClaims("bad")).thenThrow(new IllegalArgumentException("bad signature"));
+        StompHeaderAccessor accessor = accessor(StompCommand.CONNECT, null);
+        accessor.addNativeHeader("Authorization", "Bearer bad");
+        assertThatThrownBy(() -> interceptor.preSend(message(accessor), channel))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void connectWithRevokedTokenIsRejected() {
+        Claims claims = mock(Claims.class);
+        when(claims.getId()).thenReturn("jti-1");
+        when(jwtUtil.parseClaims("token")).thenReturn(claims);
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+        StompHeaderAccessor accessor = accessor(StompCommand.CONNECT, null);
+        accessor.addNativeHeader("Authorization", "Bearer token");
+
+        assertThatThrownBy(() -> interceptor.preSend(message(accessor), channel))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void subscribeIsLimitedToOwnUserQueues() {
+        StompHeaderAccessor own = accessor(StompCommand.SUBSCRIBE, "/user/queue/events");
+        own.setUser(user("7"));
+        Message<byte[]> allowed = message(own);
+        assertThat(interceptor.preSend(allowed, channel)).isSameAs(allowed);
+
+        StompHeaderAccessor broker = accessor(StompCommand.SUBSCRIBE, "/queue/events");
+        broker.setUser(user("7"));
+        assertThatThrownBy(() -> interceptor.preSend(message(broker), channel))
+                .isInstanceOf(MessagingException.class);
+
+        StompHeaderAccessor anonymous = accessor(StompCommand.SUBSCRIBE, "/user/queue/events");
+        assertThatThrownBy(() -> interceptor.preSend(message(anonymous), channel))
+                .isInstanceOf(MessagingException.class);
+    }
+
+    @Test
+    void sendIsRejectedForEveryDestination() {
+        for (String destination : new String[]{"/user/8/queue/events", "/user/queue/events", "/queue/events"}) {
+            StompHeaderAccessor accessor = accessor(StompCommand.SEND, destination);
+            accessor.setUser(user("7"));
+            assertThatThrownBy(() -> interceptor.preSend(message(accessor), channel))
+                    .isInstanceOf(MessagingException.class);
+        }
+    }
+
+    private static StompHeaderAccessor accessor(StompCommand command, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (destination != null) {
+            accessor.setDestination(destination);
+        }
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static UsernamePasswordAuthenticationToken user(String name) {
+        return new UsernamePasswordAuthenticationToken(name, null, List.of());
+    }
+}
@@ -0,0 +1,230 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.MediaBlob;
+import com.data.project_reactnative.repository.MediaBlobRepository;
+import com.data.project_reactnative.storage.FileSystemMediaStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MediaStorageServiceTest {
+
+    private static final int MEMORY_THRESHOLD = 16;
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private MediaBlobRepository mediaBlobRepository;
+
+    private MediaStorageService mediaStorageService;
+
+    @BeforeEach
+    void setUp() {
+        FileSystemMediaStore mediaStore = new FileSystemMediaStore();
+        ReflectionTestUtils.setField(mediaStore, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.invokeMethod(mediaStore, "init");
+
+        mediaStorageService = new MediaStorageService();
+        ReflectionTestUtils.setField(mediaStorageService, "mediaBlobRepository", mediaBlobRepository);
+        ReflectionTestUtils.setField(mediaStorageService, "mediaStore", mediaStore);
+        ReflectionTestUtils.setField(mediaStorageService, "memoryThreshold", MEMORY_THRESHOLD);
+        ReflectionTestUtils.setField(mediaStorageService, "maxImageBytes", 1024L);
+        ReflectionTestUtils.setField(mediaStorageService, "maxVideoBytes", 4096L);
+    }
+
+    @Test
+    void smallBodyIsStoredUnderItsDigest() throws Exception {
+        byte[] content = bytes(MEMORY_THRESHOLD - 1);
+
+        MediaStorageService.StoredMedia stored = mediaStorageService.store(new ByteArrayInputStream(content), -1,
+                "image/png", "photo.png", true);
+
+        assertThat(stored.getSha256()).isEqualTo(sha256(content));
+        assertThat(stored.getFileName()).isEqualTo(sha256(content) + ".png");
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(uploadDir.resolve(stored.getFileName()))).isEqualTo(content);
+        assertThat(files()).containsExactly(stored.getFileName());
+
+        ArgumentCaptor<MediaBlob> blob = ArgumentCaptor.forClass(MediaBlob.class);
+        verify(mediaBlobRepository).saveAndFlush(blob.capture());
+        assertThat(blob.getValue().getSha256()).isEqualTo(stored.getSha256());
+        assertThat(blob.getValue().getFileName()).isEqualTo(stored.getFileName());
+        assertThat(blob.getValue().getRefCount()).isZero();
+    }
+
+    @Test
+    void largeBodySpillsToAStagingFileThatIsMovedIntoPlace() throws Exception {
+        byte[] content = bytes(1000);
+
+        MediaStorageService.StoredMedia stored = mediaStorageService.store(new ByteArrayInputStream(content),
+                content.length, "image/jpeg", null, true);
+
+        assertThat(stored.getFileName()).isEqualTo(sha256(content) + ".jpg");
+        assertThat(Files.readAllBytes(uploadDir.resolve(stored.getFileName()))).isEqualTo(content);
+        assertThat(files()).containsExactly(stored.getFileName());
+    }
+
+    @Test
+    void multipartUploadIsStoredUnderItsDigest() throws Exception {
+        byte[] content = bytes(2000);
+        MockMultipartFile file = new MockMultipartFile("file", "clip.MP4", "video/mp4", content);
+
+        MediaStorageService.StoredMedia stored = mediaStorageService.store(file, false);
+
+        assertThat(stored.getFileName()).isEqualTo(sha256(content) + ".mp4");
+        assertThat(stored.getSize()).isEqualTo(content.length);
+        assertThat(Files.readAllBytes(uploadDir.resolve(stored.getFileName()))).isEqualTo(content);
+        assertThat(files()).containsExactly(stored.getFileName());
+    }
+
+    @Test
+    void declaredLengthOverTheLimitIsRejectedBeforeReading() {
+        ByteArrayInputStream body = new ByteArrayInputStream(bytes(10));
+
+        assertThatThrownBy(() -> mediaStorageService.store(body, 2048, "image/png", "photo.png", true))
+                .hasMessageContaining("too large");
+
+        assertThat(body.available()).isEqualTo(10);
+        verify(mediaBlobRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void bodyOverTheLimitIsRejectedWhileStreaming() throws Exception {
+        byte[] content = bytes(2048);
+
+        assertThatThrownBy(() -> mediaStorageService.store(new ByteArrayInputStream(content), -1,
+                "image/png", "photo.png", true))
+                .hasMessageContaining("too large");
+
+        assertThat(files()).isEmpty();
+        verify(mediaBlobRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void emptyBodyAndUnsupportedTypesAreRejected() {
+        assertThatThrownBy(() -> mediaStorageService.store(new ByteArrayInputStream(new byte[0]), -1,
+                "image/png", "photo.png", true))
+                .hasMessage("File is empty");
+        assertThatThrownBy(() -> mediaStorageService.store(new ByteArrayInputStream(bytes(10)), -1,
+                "video/mp4", "clip.mp4", true))
+                .hasMessage("Only image files are allowed");
+        assertThatThrownBy(() -> mediaStorageService.store(new ByteArrayInputStream(bytes(10)), -1,
+                "application/pdf", "doc.pdf", false))
+                .hasMessage("Only image and video files are allowed");
+    }
+
+    @Test
+    void uploadOfStoredContentReusesTheBlob() throws Exception {
+        byte[] content = bytes(100);
+        MediaStorageService.StoredMedia first = mediaStorageService.store(new ByteArrayInputStream(content), -1,
+                "image/png", "first.png", true);
+
+        when(mediaBlobRepository.touch(eq(first.getSha256()), any())).thenReturn(1);
+        when(mediaBlobRepository.findBySha256(first.getSha256())).thenReturn(Optional.of(blob(first)));
+        MediaStorageService.StoredMedia second = mediaStorageService.store(new ByteArrayInputStream(content), -1,
+                "image/png", "second.png", true);
+
+        assertThat(second.getFileName()).isEqualTo(first.getFileName());
+        assertThat(files()).containsExactly(first.getFileName());
+        verify(mediaBlobRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void concurrentUploadReusesTheWinningRowAndWritesItsMissingFile() throws Exception {
+        byte[] content = bytes(100);
+        String sha256 = sha256(content);
+        MediaStorageService.StoredMedia winner = new MediaStorageService.StoredMedia(sha256 + ".jpg", sha256,
+                content.length, "image/jpeg");
+        // The other upload claimed the digest between the touch and the insert, but has not written its file
+        when(mediaBlobRepository.touch(eq(sha256), any())).thenReturn(0, 1);
+        when(mediaBlobRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(mediaBlobRepository.findBySha256(sha256)).thenReturn(Optional.of(blob(winner)));
+
+        MediaStorageService.StoredMedia stored = mediaStorageService.store(new ByteArrayInputStream(content), -1,
+                "image/png", "photo.png", true);
+
+        assertThat(stored.getFileName()).isEqualTo(winner.getFileName());
+        assertThat(Files.readAllBytes(uploadDir.resolve(winner.getFileName()))).isEqualTo(content);
+        assertThat(files()).containsExactly(winner.getFileName());
+    }
+
+    @Test
+    void uploadOfContentBeingCollectedFails() throws Exception {
+        byte[] content = bytes(100);
+        when(mediaBlobRepository.touch(eq(sha256(content)), any())).thenReturn(0);
+        when(mediaBlobRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatThrownBy(() -> mediaStorageService.store(new ByteArrayInputStream(content), -1,
+                "image/png", "photo.png", true))
+                .hasMessage("Could not store file. Please try again.");
+
+        assertThat(files()).isEmpty();
+    }
+
+    @Test
+    void referencesAreCountedByFileNameOfUploadUrls() {
+        mediaStorageService.addReference("https://api.example.com/uploads/abc.jpg?w=320");
+        mediaStorageService.releaseReference("/uploads/def.png");
+        mediaStorageService.addReference("https://cdn.example.com/avatar.png");
+        mediaStorageService.releaseReference(null);
+
+        verify(mediaBlobRepository).incrementRefCount("abc.jpg");
+        verify(mediaBlobRepository).decrementRefCount("def.png");
+        verify(mediaBlobRepository, times(1)).incrementRefCount(any());
+        verify(mediaBlobRepository, times(1)).decrementRefCount(any());
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    private static MediaBlob blob(MediaStorageService.StoredMedia stored) {
+        MediaBlob blob = new MediaBlob();
+        blob.setSha256(stored.getSha256());
+        blob.setFileName(stored.getFileName());
+        blob.setSize(stored.getSize());
+        return blob;
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
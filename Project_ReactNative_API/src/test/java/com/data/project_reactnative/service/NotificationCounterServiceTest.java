@@ -0,0 +1,121 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.dto.NotificationCountDTO;
+import com.data.project_reactnative.repository.FriendRequestRepository;
+import com.data.project_reactnative.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCounterServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private FriendRequestRepository friendRequestRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @InjectMocks
+    private NotificationCounterService notificationCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationCounterService, "idleEvictionMs", 600_000L);
+    }
+
+    @Test
+    void countsAreLoadedOnceAndThenServedFromMemory() {
+        storedCounts(2, 5);
+
+        assertCounts(2, 5);
+        assertCounts(2, 5);
+
+        verify(friendRequestRepository, times(1)).countPendingRequestsByReceiverId(USER_ID);
+        verify(messageRepository, times(1)).countUnreadMessagesForUser(USER_ID);
+    }
+
+    @Test
+    void adjustmentsUpdateCountsAndMarkTheUserDirty() {
+        storedCounts(2, 5);
+        notificationCounterService.getCounts(USER_ID);
+
+        notificationCounterService.adjustFriendRequests(USER_ID, 1);
+        notificationCounterService.adjustUnreadMessages(USER_ID, -10);
+
+        assertCounts(3, 0);
+        assertThat(notificationCounterService.drainDirtyUsers()).containsExactly(USER_ID);
+        assertThat(notificationCounterService.drainDirtyUsers()).isEmpty();
+    }
+
+    @Test
+    void adjustmentOfAnUnloadedUserStillMarksThemDirty() {
+        notificationCounterService.adjustUnreadMessages(USER_ID, 1);
+
+        assertThat(notificationCounterService.drainDirtyUsers()).containsExactly(USER_ID);
+        storedCounts(0, 1);
+        assertCounts(0, 1);
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        storedCounts(2, 5);
+        notificationCounterService.getCounts(USER_ID);
+
+        storedCounts(1, 7);
+        notificationCounterService.reconcile();
+
+        assertCounts(1, 7);
+        assertThat(notificationCounterService.drainDirtyUsers()).containsExactly(USER_ID);
+    }
+
+    @Test
+    void reconcileKeepsAnAdjustmentMadeWhileCounting() {
+        storedCounts(0, 5);
+        notificationCounterService.getCounts(USER_ID);
+
+        // A message arrives between the COUNT query and the correction; the count read misses it
+        when(friendRequestRepository.countPendingRequestsByReceiverId(USER_ID)).thenReturn(0L);
+        when(messageRepository.countUnreadMessagesForUser(USER_ID)).thenAnswer(invocation -> {
+            notificationCounterService.adjustUnreadMessages(USER_ID, 1);
+            return 4L;
+        });
+        notificationCounterService.reconcile();
+
+        assertCounts(0, 6);
+    }
+
+    @Test
+    void reconcileEvictsIdleUsers() {
+        storedCounts(2, 5);
+        notificationCounterService.getCounts(USER_ID);
+        ReflectionTestUtils.setField(notificationCounterService, "idleEvictionMs", -1L);
+
+        notificationCounterService.reconcile();
+        assertCounts(2, 5);
+
+        verify(messageRepository, times(2)).countUnreadMessagesForUser(USER_ID);
+    }
+
+    private void storedCounts(long friendRequests, long unreadMessages) {
+        when(friendRequestRepository.countPendingRequestsByReceiverId(USER_ID)).thenReturn(friendRequests);
+        when(messageRepository.countUnreadMessagesForUser(USER_ID)).thenReturn(unreadMessages);
+    }
+
+    private void assertCounts(long friendRequests, long unreadMessages) {
+        NotificationCountDTO counts = notificationCounterService.getCounts(USER_ID);
+        assertThat(counts.getFriendRequestCount()).isEqualTo(friendRequests);
+        assertThat(counts.getUnreadMessageCount()).isEqualTo(unreadMessages);
+    }
+}
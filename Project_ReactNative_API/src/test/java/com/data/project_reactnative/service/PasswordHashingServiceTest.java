@@ -0,0 +1,105 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.exception.AuthOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PasswordHashingService passwordHashingService;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", meterRegistry);
+        // One hashing thread and one queue slot
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMs", 5000L);
+        ReflectionTestUtils.setField(passwordHashingService, "retryAfterSeconds", 7L);
+        passwordHashingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void hashesOnThePool() {
+        when(passwordEncoder.encode("secret")).thenReturn("hash");
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        assertThat(passwordHashingService.encode("secret")).isEqualTo("hash");
+        assertThat(passwordHashingService.matches("secret", "hash")).isTrue();
+    }
+
+    @Test
+    void fullQueueShedsWithRetryAfter() throws Exception {
+        blockPool();
+        // Takes the only queue slot
+        CompletableFuture.runAsync(() -> passwordHashingService.encode("queued"));
+        ThreadPoolExecutor executor =
+                (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHashingService, "executor");
+        while (executor.getQueue().isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> passwordHashingService.encode("rejected"))
+                .isInstanceOfSatisfying(AuthOverloadedException.class,
+                        e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(7));
+        assertThat(meterRegistry.get("auth.hashing.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void hashWaitingTooLongIsShed() throws Exception {
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMs", 50L);
+        blockPool();
+
+        assertThatThrownBy(() -> passwordHashingService.encode("waiting"))
+                .isInstanceOf(AuthOverloadedException.class);
+        assertThat(meterRegistry.get("auth.hashing.rejected").counter().count()).isEqualTo(1);
+    }
+
+    // Occupy the only hashing thread until the test ends
+    private void blockPool() throws InterruptedException {
+        // Lenient: the queued and shed calls reach the encoder with other arguments, or not at all
+        lenient().when(passwordEncoder.encode("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+        CompletableFuture.runAsync(() -> passwordHashingService.encode("slow"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
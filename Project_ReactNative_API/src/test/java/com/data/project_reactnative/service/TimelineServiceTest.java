@@ -0,0 +1,131 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.repository.FriendshipRepository;
+import com.data.project_reactnative.repository.PostRepository;
+import com.data.project_reactnative.repository.UserTimelineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimelineServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private UserTimelineRepository userTimelineRepository;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    @Mock
+    private FriendGraphCache friendGraphCache;
+
+    @InjectMocks
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(timelineService, "enabled", true);
+        ReflectionTestUtils.setField(timelineService, "capacity", 10);
+        ReflectionTestUtils.setField(timelineService, "celebrityFriendThreshold", 1000);
+        ReflectionTestUtils.setField(timelineService, "maxCachedUsers", 100);
+        ReflectionTestUtils.setField(timelineService, "fanOutThreads", 1);
+        ReflectionTestUtils.setField(timelineService, "fanOutQueueCapacity", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timelineService.shutdown();
+    }
+
+    @Test
+    void bufferKeepsOnlyTheNewestEntriesUpToCapacity() {
+        ReflectionTestUtils.setField(timelineService, "capacity", 3);
+        start(List.of());
+        storedTimeline(entry(5, 10), entry(4, 10), entry(3, 10), entry(2, 10), entry(1, 10));
+
+        assertThat(timelineService.getFeedPostIds(USER_ID, List.of(10L), null, null, 3))
+                .containsExactly(5L, 4L, 3L);
+        // Older entries were trimmed, so a bigger page falls back to fan-out-on-read
+        assertThat(timelineService.getFeedPostIds(USER_ID, List.of(10L), null, null, 4)).isNull();
+    }
+
+    @Test
+    void pageStartsStrictlyAfterTheCursor() {
+        start(List.of());
+        storedTimeline(entry(5, 10), entry(4, 10), entry(3, 10), entry(2, 10), entry(1, 10));
+
+        assertThat(timelineService.getFeedPostIds(USER_ID, List.of(10L), time(4), 4L, 2))
+                .containsExactly(3L, 2L);
+        assertThat(timelineService.getFeedPostIds(USER_ID, List.of(10L), time(2), 2L, 2)).isNull();
+    }
+
+    @Test
+    void celebrityPostsAreMergedByRecency() {
+        start(List.of(20L));
+        storedTimeline(
+                entry(6, 10),
+                entry(5, 30),   // no longer a friend
+                entry(4, 20),   // pushed before the author became a celebrity
+                entry(3, 10),
+                entry(2, 10),
+                entry(1, 10));
+        when(postRepository.findFeedEntriesFirstPage(eq(List.of(20L)), any()))
+                .thenReturn(rows(entry(7, 20), entry(4, 20)));
+
+        assertThat(timelineService.getFeedPostIds(USER_ID, List.of(10L, 20L), null, null, 3))
+                .containsExactly(7L, 6L, 4L);
+    }
+
+    @Test
+    void duplicateEntriesAreReturnedOnce() {
+        start(List.of());
+        storedTimeline(entry(3, 10), entry(3, 10), entry(2, 10), entry(1, 10));
+
+        assertThat(timelineService.getFeedPostIds(USER_ID, List.of(10L), null, null, 3))
+                .containsExactly(3L, 2L, 1L);
+    }
+
+    private void start(List<Long> celebrities) {
+        when(friendshipRepository.findUserIdsWithMoreFriendsThan(anyLong())).thenReturn(celebrities);
+        timelineService.init();
+    }
+
+    private void storedTimeline(Object[]... entries) {
+        when(userTimelineRepository.findRecentEntries(eq(USER_ID), any())).thenReturn(rows(entries));
+    }
+
+    private static List<Object[]> rows(Object[]... entries) {
+        return new ArrayList<>(List.of(entries));
+    }
+
+    // [postId, authorId, createdAt]; post n is created n minutes after BASE
+    private static Object[] entry(long postId, long authorId) {
+        return new Object[]{postId, authorId, time(postId)};
+    }
+
+    private static LocalDateTime time(long postId) {
+        return BASE.plusMinutes(postId);
+    }
+}
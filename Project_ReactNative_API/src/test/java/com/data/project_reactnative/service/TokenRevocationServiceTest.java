@@ -0,0 +1,124 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.model.RevokedToken;
+import com.data.project_reactnative.repository.RefreshTokenRepository;
+import com.data.project_reactnative.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "bloomBits", 1 << 16);
+        ReflectionTestUtils.setField(tokenRevocationService, "hashFunctions", 4);
+    }
+
+    @Test
+    void nothingIsRevokedBeforeTheFirstLoad() {
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isFalse();
+        assertThat(tokenRevocationService.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void reloadMirrorsActiveRevocations() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(rows(
+                row("jti-1", LocalDateTime.now().plusMinutes(10)),
+                row("jti-2", LocalDateTime.now().plusMinutes(10))));
+
+        tokenRevocationService.reload();
+
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-2")).isTrue();
+        assertThat(tokenRevocationService.isRevoked("jti-3")).isFalse();
+    }
+
+    @Test
+    void expiredRevocationNoLongerApplies() {
+        // The filter still contains the id; the exact map decides by expiry
+        when(revokedTokenRepository.findActive(any())).thenReturn(rows(
+                row("jti-1", LocalDateTime.now().minusSeconds(1))));
+
+        tokenRevocationService.reload();
+
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isFalse();
+    }
+
+    @Test
+    void filterFalsePositivesAreResolvedByTheExactMap() {
+        // A 64-bit filter with one hash function is saturated by 1000 ids, so every lookup hits it
+        ReflectionTestUtils.setField(tokenRevocationService, "bloomBits", 64);
+        ReflectionTestUtils.setField(tokenRevocationService, "hashFunctions", 1);
+        List<Object[]> active = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            active.add(row("revoked-" + i, LocalDateTime.now().plusMinutes(10)));
+        }
+        when(revokedTokenRepository.findActive(any())).thenReturn(active);
+
+        tokenRevocationService.reload();
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(tokenRevocationService.isRevoked("revoked-" + i)).isTrue();
+            assertThat(tokenRevocationService.isRevoked("valid-" + i)).isFalse();
+        }
+    }
+
+    @Test
+    void revokeIsVisibleImmediatelyAndSurvivesReload() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(rows());
+        tokenRevocationService.reload();
+
+        tokenRevocationService.revoke("jti-1", new Date(System.currentTimeMillis() + 60_000));
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+
+        // The reload read its rows before the revocation was committed
+        tokenRevocationService.reload();
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    void alreadyExpiredTokenIsNotStored() {
+        when(revokedTokenRepository.findActive(any())).thenReturn(rows());
+        tokenRevocationService.reload();
+
+        tokenRevocationService.revoke("jti-1", new Date(System.currentTimeMillis() - 1000));
+
+        verify(revokedTokenRepository, never()).save(any());
+        assertThat(tokenRevocationService.isRevoked("jti-1")).isFalse();
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static Object[] row(String jti, LocalDateTime expiresAt) {
+        return new Object[]{jti, expiresAt};
+    }
+}
@@ -0,0 +1,138 @@
+package com.data.project_reactnative.service;
+
+import com.data.project_reactnative.config.PrimaryReads;
+import com.data.project_reactnative.repository.UserProfileView;
+import com.data.project_reactnative.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserProfileCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserProfileCache userProfileCache;
+
+    @BeforeEach
+    void setUp() {
+        userProfileCache = new UserProfileCache();
+        ReflectionTestUtils.setField(userProfileCache, "userRepository", userRepository);
+        // Without replicas PrimaryReads runs the load in place
+        ReflectionTestUtils.setField(userProfileCache, "primaryReads", new PrimaryReads());
+        ReflectionTestUtils.setField(userProfileCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(userProfileCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(userProfileCache, "ttlMs", 300_000L);
+        userProfileCache.init();
+    }
+
+    @Test
+    void missesAreLoadedWithOneQueryAndThenServedFromMemory() {
+        List<Long> ids = List.of(1L, 2L, 3L);
+        List<UserProfileView> views = List.of(view(1L), view(2L));
+        when(userRepository.findProfilesByIdIn(ids)).thenReturn(views);
+
+        Map<Long, UserProfileCache.UserProfile> first = userProfileCache.getAll(ids);
+        Map<Long, UserProfileCache.UserProfile> second = userProfileCache.getAll(List.of(1L, 2L));
+
+        assertThat(first).containsOnlyKeys(1L, 2L);
+        assertThat(first.get(1L).getEmail()).isEqualTo("user1@example.com");
+        assertThat(second.get(1L)).isSameAs(first.get(1L));
+        verify(userRepository, times(1)).findProfilesByIdIn(anyCollection());
+        assertThat(gets("miss")).isEqualTo(3);
+        assertThat(gets("hit")).isEqualTo(2);
+    }
+
+    @Test
+    void emailLookupsShareTheCachedProfile() {
+        UserProfileView view = view(1L);
+        when(userRepository.findProfileByEmail("user1@example.com")).thenReturn(Optional.of(view));
+
+        UserProfileCache.UserProfile loaded = userProfileCache.getByEmail("user1@example.com");
+
+        assertThat(userProfileCache.getByEmail("user1@example.com")).isSameAs(loaded);
+        assertThat(userProfileCache.get(1L)).isSameAs(loaded);
+        verify(userRepository, times(1)).findProfileByEmail("user1@example.com");
+        verify(userRepository, never()).findProfilesByIdIn(anyCollection());
+    }
+
+    @Test
+    void expiredProfilesAreReloaded() {
+        ReflectionTestUtils.setField(userProfileCache, "ttlMs", -1L);
+        List<UserProfileView> views = List.of(view(1L));
+        when(userRepository.findProfilesByIdIn(List.of(1L))).thenReturn(views);
+
+        userProfileCache.get(1L);
+        userProfileCache.get(1L);
+
+        verify(userRepository, times(2)).findProfilesByIdIn(List.of(1L));
+    }
+
+    @Test
+    void invalidatedProfilesAreReloaded() {
+        List<UserProfileView> views = List.of(view(1L));
+        when(userRepository.findProfilesByIdIn(List.of(1L))).thenReturn(views);
+
+        userProfileCache.get(1L);
+        userProfileCache.invalidate(1L);
+        userProfileCache.get(1L);
+
+        verify(userRepository, times(2)).findProfilesByIdIn(List.of(1L));
+    }
+
+    @Test
+    void loadThatRacedWithAnInvalidationIsNotCached() {
+        List<UserProfileView> views = List.of(view(1L));
+        when(userRepository.findProfilesByIdIn(List.of(1L))).thenAnswer(invocation -> {
+            // The profile changes while its old values are being read
+            userProfileCache.invalidate(1L);
+            return views;
+        });
+
+        assertThat(userProfileCache.get(1L)).isNotNull();
+
+        assertThat(userProfileCache.size()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedProfilesAreEvictedBeyondTheLimit() {
+        ReflectionTestUtils.setField(userProfileCache, "maxEntries", 2);
+        List<UserProfileView> views = List.of(view(1L), view(2L), view(3L));
+        when(userRepository.findProfilesByIdIn(List.of(1L, 2L, 3L))).thenReturn(views);
+
+        userProfileCache.getAll(List.of(1L, 2L, 3L));
+
+        assertThat(userProfileCache.size()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).counter().count();
+    }
+
+    private static UserProfileView view(Long id) {
+        UserProfileView view = mock(UserProfileView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getEmail()).thenReturn("user" + id + "@example.com");
+        return view;
+    }
+}
@@ -0,0 +1,75 @@
+package com.data.project_reactnative.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileSystemMediaStoreTest {
+
+    @TempDir
+    Path uploadDir;
+
+    private FileSystemMediaStore mediaStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mediaStore = new FileSystemMediaStore();
+        ReflectionTestUtils.setField(mediaStore, "uploadDir", uploadDir.resolve("media").toString());
+        mediaStore.init();
+    }
+
+    @Test
+    void putMovesTheStagingFileIntoPlace() throws IOException {
+        Path staging = mediaStore.createTempFile();
+        assertThat(staging.getParent()).isEqualTo(uploadDir.resolve("media"));
+        Files.writeString(staging, "hello");
+
+        mediaStore.put("abc.jpg", staging, "image/jpeg");
+
+        assertThat(staging).doesNotExist();
+        assertThat(mediaStore.exists("abc.jpg")).isTrue();
+        assertThat(mediaStore.size("abc.jpg")).isEqualTo(5);
+        assertThat(mediaStore.localPath("abc.jpg")).hasContent("hello");
+        try (InputStream in = mediaStore.open("abc.jpg")) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello");
+        }
+    }
+
+    @Test
+    void missingObjectsHaveNoSize() throws IOException {
+        assertThat(mediaStore.size("missing.jpg")).isEqualTo(-1);
+        assertThat(mediaStore.exists("missing.jpg")).isFalse();
+
+        Path staging = mediaStore.createTempFile();
+        mediaStore.put("abc.jpg", staging, "image/jpeg");
+        mediaStore.delete("abc.jpg");
+        mediaStore.delete("abc.jpg");
+
+        assertThat(mediaStore.exists("abc.jpg")).isFalse();
+    }
+
+    @Test
+    void keysOutsideTheUploadDirectoryAreRejected() {
+        assertThatThrownBy(() -> mediaStore.open("../secret.txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> mediaStore.localPath("/etc/passwd"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void objectsAreServedLocallyWithoutDirectUploads() {
+        assertThat(mediaStore.downloadUrl("abc.jpg")).isNull();
+        assertThatThrownBy(() -> mediaStore.presignUpload("abc.jpg", "image/jpeg", 5, "checksum"))
+                .hasMessageContaining("S3");
+    }
+}
@@ -0,0 +1,63 @@
+package com.data.project_reactnative.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BlurHashTest {
+
+    @Test
+    void singleComponentHashIsAverageColour() {
+        assertThat(BlurHash.encode(solid(0x000000), 1, 1)).isEqualTo("000000");
+        assertThat(BlurHash.encode(solid(0xFFFFFF), 1, 1)).isEqualTo("00TSUA");
+        assertThat(BlurHash.encode(solid(0xFF0000), 1, 1)).isEqualTo("00TI:j");
+    }
+
+    @Test
+    void blackImageHasNeutralAcComponents() {
+        // Size flag (4-1) + (3-1) * 9 = 21 -> "L", zero maximum, black DC, then 11 AC components of value 9/9/9
+        assertThat(BlurHash.encode(solid(0x000000), 4, 3)).isEqualTo("L00000" + "fQ".repeat(11));
+    }
+
+    @Test
+    void lengthFollowsComponentCount() {
+        BufferedImage image = halves(0x000000, 0xFFFFFF);
+
+        assertThat(BlurHash.encode(image, 4, 3)).hasSize(6 + 2 * (4 * 3 - 1));
+        assertThat(BlurHash.encode(image, 9, 9)).hasSize(6 + 2 * (9 * 9 - 1));
+    }
+
+    @Test
+    void horizontalEdgeChangesHorizontalComponents() {
+        String hash = BlurHash.encode(halves(0x000000, 0xFFFFFF), 4, 3);
+        String mirrored = BlurHash.encode(halves(0xFFFFFF, 0x000000), 4, 3);
+
+        assertThat(hash).isNotEqualTo(mirrored);
+        // Same average colour either way
+        assertThat(hash.substring(2, 6)).isEqualTo(mirrored.substring(2, 6));
+        // The first AC component (i = 1, j = 0) carries the left/right difference
+        assertThat(hash.substring(6, 8)).isNotEqualTo("fQ");
+    }
+
+    private static BufferedImage solid(int rgb) {
+        BufferedImage image = new BufferedImage(32, 24, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, rgb);
+            }
+        }
+        return image;
+    }
+
+    private static BufferedImage halves(int left, int right) {
+        BufferedImage image = new BufferedImage(32, 24, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, x < image.getWidth() / 2 ? left : right);
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,44 @@
+package com.data.project_reactnative.util;
+
+import com.data.project_reactnative.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    @Test
+    void decodeReturnsEncodedPosition() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 9, 17, 45, 12, 123456000);
+
+        FeedCursor cursor = FeedCursor.decode(FeedCursor.encode(createdAt, 42L));
+
+        assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(cursor.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = FeedCursor.encode(LocalDateTime.of(2024, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decodeRejectsMalformedCursors() {
+        assertThatThrownBy(() -> FeedCursor.decode("not base64!")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(urlEncode("2024-03-09T17:45:12"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(urlEncode("yesterday|42"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(urlEncode("2024-03-09T17:45:12|abc"))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> FeedCursor.decode("")).isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String urlEncode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}